@@ -0,0 +1,33 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+final class AggregatedEntries<K, V> implements Entries<K, V> {
+
+    private final OpenHashIndex<K> index;
+    private final IntFunction<? extends V> valueFun;
+    private int i;
+
+    AggregatedEntries(OpenHashIndex<K> index, IntFunction<? extends V> valueFun) {
+        this.index = requireNonNull(index, "index");
+        this.valueFun = requireNonNull(valueFun, "valueFun");
+    }
+
+    public boolean next(BiConsumer<K, V> action) {
+        if (i < index.size()) {
+            action.accept(index.keyAt(i), valueFun.apply(i));
+            ++i;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.DISTINCT;
+    }
+
+}
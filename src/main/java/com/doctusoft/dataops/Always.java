@@ -0,0 +1,25 @@
+package com.doctusoft.dataops;
+
+import java.util.function.*;
+
+@SuppressWarnings("rawtypes")
+enum Always implements Predicate {
+
+    TRUE(true),
+    FALSE(false);
+
+    private final boolean constant;
+
+    private Always(boolean constant) {
+        this.constant = constant;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> Predicate<T> alwaysTrue() {
+        return TRUE;
+    }
+
+    public boolean test(Object o) {
+        return constant;
+    }
+}
@@ -0,0 +1,18 @@
+package com.doctusoft.dataops;
+
+/**
+ * Decides which right entry an as-of join matches to a left key, see {@link JoinOperator#asOfJoin}.
+ */
+public enum AsOfDirection {
+
+    /**
+     * The right entry with the greatest key less than or equal to the left key.
+     */
+    BACKWARD,
+
+    /**
+     * The right entry with the smallest key greater than or equal to the left key.
+     */
+    FORWARD
+
+}
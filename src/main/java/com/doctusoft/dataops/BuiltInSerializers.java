@@ -0,0 +1,55 @@
+package com.doctusoft.dataops;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+final class BuiltInSerializers {
+
+    private BuiltInSerializers() {
+        throw com.doctusoft.java.Failsafe.staticClassInstantiated();
+    }
+
+    static final Serializer<Integer> INTEGER = new Serializer<Integer>() {
+        public void write(Integer value, DataOutput out) throws IOException {
+            out.writeInt(value);
+        }
+
+        public Integer read(DataInput in) throws IOException {
+            return in.readInt();
+        }
+    };
+
+    static final Serializer<Long> LONG = new Serializer<Long>() {
+        public void write(Long value, DataOutput out) throws IOException {
+            out.writeLong(value);
+        }
+
+        public Long read(DataInput in) throws IOException {
+            return in.readLong();
+        }
+    };
+
+    static final Serializer<Double> DOUBLE = new Serializer<Double>() {
+        public void write(Double value, DataOutput out) throws IOException {
+            out.writeDouble(value);
+        }
+
+        public Double read(DataInput in) throws IOException {
+            return in.readDouble();
+        }
+    };
+
+    static final Serializer<String> STRING = new Serializer<String>() {
+        public void write(String value, DataOutput out) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        public String read(DataInput in) throws IOException {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+}
@@ -0,0 +1,134 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Stable merge sort of a key column and a parallel value column, ordering both by the keys. Keys are compared
+ * directly, so key extraction never has to be repeated during comparisons.
+ */
+final class ColumnSort {
+
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    private ColumnSort() {
+        throw com.doctusoft.java.Failsafe.staticClassInstantiated();
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K> void sort(Object[] keys, Object[] values, int from, int to, Comparator<? super K> keyOrder) {
+        Object[] keyBuffer = Arrays.copyOfRange(keys, from, to);
+        Object[] valueBuffer = Arrays.copyOfRange(values, from, to);
+        mergeSort(keyBuffer, valueBuffer, keys, values, from, to, -from, (Comparator<Object>) keyOrder);
+    }
+
+    /**
+     * Same as {@link #sort} but sorts the halves on the common {@link ForkJoinPool} recursively.
+     */
+    @SuppressWarnings("unchecked")
+    static <K> void parallelSort(Object[] keys, Object[] values, int from, int to, Comparator<? super K> keyOrder) {
+        if (to - from <= PARALLEL_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() <= 1) {
+            sort(keys, values, from, to, keyOrder);
+            return;
+        }
+        Object[] keyBuffer = Arrays.copyOfRange(keys, from, to);
+        Object[] valueBuffer = Arrays.copyOfRange(values, from, to);
+        ForkJoinPool.commonPool().invoke(
+            new MergeSortTask(keyBuffer, valueBuffer, keys, values, from, to, -from, (Comparator<Object>) keyOrder));
+    }
+
+    /**
+     * Sorts {@code [from; to)} of the destination columns using the source columns - holding the same elements
+     * shifted by {@code offset} - as temporary storage.
+     */
+    private static void mergeSort(Object[] srcKeys, Object[] srcValues, Object[] dstKeys, Object[] dstValues,
+        int from, int to, int offset, Comparator<Object> keyOrder) {
+        int length = to - from;
+        if (length < INSERTION_SORT_THRESHOLD) {
+            insertionSort(dstKeys, dstValues, from, to, keyOrder);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(dstKeys, dstValues, srcKeys, srcValues, from + offset, mid + offset, -offset, keyOrder);
+        mergeSort(dstKeys, dstValues, srcKeys, srcValues, mid + offset, to + offset, -offset, keyOrder);
+        merge(srcKeys, srcValues, dstKeys, dstValues, from, mid, to, offset, keyOrder);
+    }
+
+    private static void merge(Object[] srcKeys, Object[] srcValues, Object[] dstKeys, Object[] dstValues,
+        int from, int mid, int to, int offset, Comparator<Object> keyOrder) {
+        int i = from + offset;
+        int j = mid + offset;
+        int iEnd = mid + offset;
+        int jEnd = to + offset;
+        if (keyOrder.compare(srcKeys[iEnd - 1], srcKeys[j]) <= 0) {
+            System.arraycopy(srcKeys, i, dstKeys, from, to - from);
+            System.arraycopy(srcValues, i, dstValues, from, to - from);
+            return;
+        }
+        for (int k = from; k < to; ++k) {
+            if (j >= jEnd || (i < iEnd && keyOrder.compare(srcKeys[i], srcKeys[j]) <= 0)) {
+                dstKeys[k] = srcKeys[i];
+                dstValues[k] = srcValues[i++];
+            } else {
+                dstKeys[k] = srcKeys[j];
+                dstValues[k] = srcValues[j++];
+            }
+        }
+    }
+
+    private static void insertionSort(Object[] keys, Object[] values, int from, int to, Comparator<Object> keyOrder) {
+        for (int i = from + 1; i < to; ++i) {
+            Object key = keys[i];
+            Object value = values[i];
+            int j = i;
+            for (; j > from && keyOrder.compare(keys[j - 1], key) > 0; --j) {
+                keys[j] = keys[j - 1];
+                values[j] = values[j - 1];
+            }
+            keys[j] = key;
+            values[j] = value;
+        }
+    }
+
+    private static final class MergeSortTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] srcKeys;
+        private final Object[] srcValues;
+        private final Object[] dstKeys;
+        private final Object[] dstValues;
+        private final int from;
+        private final int to;
+        private final int offset;
+        private final Comparator<Object> keyOrder;
+
+        private MergeSortTask(Object[] srcKeys, Object[] srcValues, Object[] dstKeys, Object[] dstValues,
+            int from, int to, int offset, Comparator<Object> keyOrder) {
+            this.srcKeys = srcKeys;
+            this.srcValues = srcValues;
+            this.dstKeys = dstKeys;
+            this.dstValues = dstValues;
+            this.from = from;
+            this.to = to;
+            this.offset = offset;
+            this.keyOrder = keyOrder;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                mergeSort(srcKeys, srcValues, dstKeys, dstValues, from, to, offset, keyOrder);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(
+                new MergeSortTask(dstKeys, dstValues, srcKeys, srcValues, from + offset, mid + offset, -offset, keyOrder),
+                new MergeSortTask(dstKeys, dstValues, srcKeys, srcValues, mid + offset, to + offset, -offset, keyOrder));
+            merge(srcKeys, srcValues, dstKeys, dstValues, from, mid, to, offset, keyOrder);
+        }
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.doctusoft.dataops;
+
+import com.doctusoft.math.ClosedRange;
+
+import java.util.*;
+import java.util.function.*;
+
+import static com.doctusoft.dataops.LookupStorage.*;
+import static java.util.Objects.*;
+
+/**
+ * Mutable {@link LookupTable} variant for reference data that changes in small batches. The values are kept in
+ * copy-on-write pages of {@code 1024} slots under a root of directories of {@code 2048} pages: an update copies the
+ * root and the directories and pages on the path to the slots it changes, everything else is shared with the previous
+ * version, and publishes the new root with a single volatile write.
+ * <p>
+ * Reads are wait-free and never see a partially applied batch. Updates are serialized, a batch costs
+ * {@code O(changed pages)} instead of {@code O(table)} - the root has at most {@code 2048} entries even for the whole
+ * {@code int} range. {@link #snapshot()} returns an immutable {@link LookupTable} of the current version in
+ * {@code O(1)}.
+ * </p>
+ */
+public final class ConcurrentLookupTable<K, V> {
+
+    public static <K, V> ConcurrentLookupTable<K, V> create(
+        ToIntFunction<? super K> keyOrdinalFun,
+        ClosedRange<Integer> validRange) {
+        return new ConcurrentLookupTable<>(validRange, keyOrdinalFun);
+    }
+
+    public static <K, V> ConcurrentLookupTable<K, V> fromEntries(
+        Entries<K, V> entries,
+        ToIntFunction<? super K> keyOrdinalFun,
+        ClosedRange<Integer> validRange) {
+        ConcurrentLookupTable<K, V> table = new ConcurrentLookupTable<>(validRange, keyOrdinalFun);
+        table.putAll(entries);
+        return table;
+    }
+
+    private final ClosedRange<Integer> validRange;
+
+    private final int offset;
+
+    private final ToIntFunction<? super K> keyOrdinalFun;
+
+    private final Object updateLock = new Object();
+
+    private volatile Object[][][] directories;
+
+    private ConcurrentLookupTable(ClosedRange<Integer> validRange, ToIntFunction<? super K> keyOrdinalFun) {
+        this.validRange = requireNonNull(validRange, "validRange");
+        this.offset = validRange.getLowerBound();
+        this.keyOrdinalFun = requireNonNull(keyOrdinalFun, "keyOrdinalFun");
+        long span = (long) validRange.getUpperBound() - offset + 1;
+        this.directories = new Object[(int) (((span - 1) >>> (PAGE_BITS + DIRECTORY_BITS)) + 1)][][];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int ordinal) {
+        validRange.checkContains(ordinal, "index");
+        long index = (long) ordinal - offset;
+        Object[][] directory = directories[(int) (index >>> (PAGE_BITS + DIRECTORY_BITS))];
+        Object[] page = directory == null ? null : directory[(int) (index >>> PAGE_BITS) & (DIRECTORY_SIZE - 1)];
+        return page == null ? null : (V) page[(int) index & (PAGE_SIZE - 1)];
+    }
+
+    public Optional<V> find(int ordinal) {
+        return Optional.ofNullable(get(ordinal));
+    }
+
+    public Optional<V> lookup(K key) {
+        requireNonNull(key, "key");
+        return find(ordinal(key));
+    }
+
+    public V require(K key) {
+        return lookup(key).orElseThrow(
+            () -> new IllegalArgumentException("No value for key: #" + ordinal(key) + ": " + key)
+        );
+    }
+
+    public void put(K key, V value) {
+        requireNonNull(key, "key");
+        requireNonNull(value, "value");
+        update(batch -> batch.set(ordinal(key), value));
+    }
+
+    public void remove(K key) {
+        requireNonNull(key, "key");
+        update(batch -> batch.set(ordinal(key), null));
+    }
+
+    /**
+     * Applies all the {@code entries} as a single update, readers see either none or all of them. Nothing is applied
+     * if any of the entries is invalid.
+     */
+    public void putAll(Entries<K, V> entries) {
+        requireNonNull(entries, "entries");
+        update(batch -> entries.forEach(
+            (k, v) -> batch.set(ordinal(k), requireNonNull(v, () -> "Null value for key: " + k))));
+    }
+
+    /**
+     * Removes the values of all the {@code keys} as a single update, see {@link #putAll}.
+     */
+    public void removeAll(Iterable<? extends K> keys) {
+        requireNonNull(keys, "keys");
+        update(batch -> keys.forEach(key -> batch.set(ordinal(key), null)));
+    }
+
+    /**
+     * @return an immutable table sharing the directories and pages of the current version
+     */
+    public LookupTable<K, V> snapshot() {
+        return new LookupTable<>(validRange, new LookupStorage.PageTree(offset, directories), keyOrdinalFun);
+    }
+
+    private int ordinal(K key) {
+        return keyOrdinalFun.applyAsInt(key);
+    }
+
+    private void update(Consumer<Batch> changes) {
+        synchronized (updateLock) {
+            Batch batch = new Batch(directories);
+            changes.accept(batch);
+            directories = batch.directories;
+        }
+    }
+
+    /**
+     * The next version of the directories: the root is copied up front, a directory or a page is copied when first
+     * changed.
+     */
+    private final class Batch {
+
+        private final Object[][][] directories;
+        private final Set<Object> copied = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        private Batch(Object[][][] directories) {
+            this.directories = directories.clone();
+        }
+
+        private void set(int ordinal, Object value) {
+            validRange.checkContains(ordinal, "index");
+            long index = (long) ordinal - offset;
+            int directoryIndex = (int) (index >>> (PAGE_BITS + DIRECTORY_BITS));
+            int pageIndex = (int) (index >>> PAGE_BITS) & (DIRECTORY_SIZE - 1);
+            Object[][] directory = directories[directoryIndex];
+            Object[] page = directory == null ? null : directory[pageIndex];
+            if (page == null && value == null) {
+                return;
+            }
+            if (!copied.contains(directory)) {
+                directory = directory == null ? new Object[DIRECTORY_SIZE][] : directory.clone();
+                directories[directoryIndex] = directory;
+                copied.add(directory);
+            }
+            if (!copied.contains(page)) {
+                page = page == null ? new Object[PAGE_SIZE] : page.clone();
+                directory[pageIndex] = page;
+                copied.add(page);
+            }
+            page[(int) index & (PAGE_SIZE - 1)] = value;
+        }
+    }
+
+
+}
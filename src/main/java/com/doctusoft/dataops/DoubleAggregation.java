@@ -0,0 +1,93 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+/**
+ * {@link HashAggregation} keeping a primitive {@code double} aggregate per key.
+ */
+public final class DoubleAggregation<K, V> extends HashAggregation<K, V, DoubleAggregation<K, V>> {
+
+    public static <K, V> DoubleAggregation<K, V> summing(ToDoubleFunction<? super V> mapperFun) {
+        return new DoubleAggregation<>(0d, mapperFun, Double::sum);
+    }
+
+    public static <K, V> DoubleAggregation<K, V> min(ToDoubleFunction<? super V> mapperFun) {
+        return new DoubleAggregation<>(Double.POSITIVE_INFINITY, mapperFun, Math::min);
+    }
+
+    public static <K, V> DoubleAggregation<K, V> max(ToDoubleFunction<? super V> mapperFun) {
+        return new DoubleAggregation<>(Double.NEGATIVE_INFINITY, mapperFun, Math::max);
+    }
+
+    /**
+     * @param identity   the initial aggregate of every key
+     * @param mapperFun  function to map each value to {@code double}
+     * @param reducerFun associative function to combine aggregates, also used to {@link #merge} partial aggregates
+     */
+    public static <K, V> DoubleAggregation<K, V> reducing(double identity, ToDoubleFunction<? super V> mapperFun,
+        DoubleBinaryOperator reducerFun) {
+        return new DoubleAggregation<>(identity, mapperFun, reducerFun);
+    }
+
+    private final double identity;
+    private final ToDoubleFunction<? super V> mapperFun;
+    private final DoubleBinaryOperator reducerFun;
+
+    private double[] values;
+
+    private DoubleAggregation(double identity, ToDoubleFunction<? super V> mapperFun, DoubleBinaryOperator reducerFun) {
+        this.identity = identity;
+        this.mapperFun = requireNonNull(mapperFun, "mapperFun");
+        this.reducerFun = requireNonNull(reducerFun, "reducerFun");
+        this.values = new double[index.columnCapacity()];
+    }
+
+    public void accept(K key, V value) {
+        reduce(key, mapperFun.applyAsDouble(value));
+    }
+
+    private void reduce(K key, double value) {
+        int i = index.add(key);
+        if (i < 0) {
+            i = ~i;
+            if (i == values.length) {
+                values = Arrays.copyOf(values, index.columnCapacity());
+            }
+            values[i] = identity;
+        }
+        values[i] = reducerFun.applyAsDouble(values[i], value);
+    }
+
+    public DoubleAggregation<K, V> merge(DoubleAggregation<K, V> other) {
+        requireNonNull(other, "other");
+        for (int i = 0, ln = other.size(); i < ln; ++i) {
+            reduce(other.index.keyAt(i), other.values[i]);
+        }
+        return this;
+    }
+
+    public double getAsDouble(K key, double defaultValue) {
+        int i = index.indexOf(key);
+        return i < 0 ? defaultValue : values[i];
+    }
+
+    public OptionalDouble find(K key) {
+        int i = index.indexOf(key);
+        return i < 0 ? OptionalDouble.empty() : OptionalDouble.of(values[i]);
+    }
+
+    public void forEach(ObjDoubleConsumer<? super K> action) {
+        requireNonNull(action);
+        for (int i = 0, ln = size(); i < ln; ++i) {
+            action.accept(index.keyAt(i), values[i]);
+        }
+    }
+
+    public Entries<K, Double> toEntries() {
+        return new AggregatedEntries<>(index, i -> values[i]);
+    }
+
+}
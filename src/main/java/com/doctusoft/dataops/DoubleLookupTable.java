@@ -0,0 +1,146 @@
+package com.doctusoft.dataops;
+
+import com.doctusoft.math.ClosedRange;
+
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+/**
+ * {@link LookupTable} variant with primitive {@code double} values: the values are kept in a {@code double[]} laid out by
+ * an {@link OrdinalIndex} chosen from the present ordinals like the storage of a {@link LookupTable}, so no value is
+ * boxed when the table is built, read or transformed and sparse tables stay compact.
+ */
+public final class DoubleLookupTable<K> {
+
+    public static <K, V> DoubleLookupTable<K> fromEntries(
+        Entries<K, V> entries,
+        ToIntFunction<? super K> keyOrdinalFun,
+        ToDoubleFunction<? super V> valueFun,
+        ClosedRange<Integer> validRange) {
+        requireNonNull(valueFun, "valueFun");
+        Builder<K> builder = new Builder<>(validRange, keyOrdinalFun);
+        requireNonNull(entries, "entries").forEach(
+            (k, v) -> builder.accept(keyOrdinalFun.applyAsInt(k), valueFun.applyAsDouble(v)));
+        return builder.build();
+    }
+
+    /**
+     * Collects the values of a table, rejecting ordinals out of the valid range or given twice.
+     */
+    static final class Builder<K> {
+
+        private final ClosedRange<Integer> validRange;
+        private final ToIntFunction<? super K> keyOrdinalFun;
+        private final OrdinalIndex.Builder ordinals = new OrdinalIndex.Builder();
+        private double[] values = new double[16];
+
+        Builder(ClosedRange<Integer> validRange, ToIntFunction<? super K> keyOrdinalFun) {
+            this.validRange = requireNonNull(validRange, "validRange");
+            this.keyOrdinalFun = requireNonNull(keyOrdinalFun, "keyOrdinalFun");
+        }
+
+        void accept(int ordinal, double value) {
+            validRange.checkContains(ordinal, "index");
+            int position = ordinals.add(ordinal);
+            if (position == values.length) {
+                values = Arrays.copyOf(values, position << 1);
+            }
+            values[position] = value;
+        }
+
+        DoubleLookupTable<K> build() {
+            OrdinalIndex index = ordinals.build();
+            double[] slots = new double[index.slotCount()];
+            for (int i = 0; i < ordinals.size(); ++i) {
+                slots[index.slotOf(ordinals.ordinal(i))] = values[i];
+            }
+            return new DoubleLookupTable<>(validRange, index, slots, keyOrdinalFun);
+        }
+    }
+
+    private final ClosedRange<Integer> validRange;
+
+    private final OrdinalIndex index;
+
+    private final double[] values;
+
+    private final ToIntFunction<? super K> keyOrdinalFun;
+
+    private DoubleLookupTable(ClosedRange<Integer> validRange, OrdinalIndex index, double[] values,
+        ToIntFunction<? super K> keyOrdinalFun) {
+        this.validRange = validRange;
+        this.index = index;
+        this.values = values;
+        this.keyOrdinalFun = requireNonNull(keyOrdinalFun, "keyOrdinalFun");
+    }
+
+    public boolean contains(int ordinal) {
+        return slotOf(ordinal) >= 0;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the table has no value for the {@code ordinal}
+     */
+    public double getAsDouble(int ordinal) {
+        int slot = slotOf(ordinal);
+        if (slot < 0) {
+            throw new IllegalArgumentException("No value for key: #" + ordinal);
+        }
+        return values[slot];
+    }
+
+    public double getOrDefault(int ordinal, double defaultValue) {
+        int slot = slotOf(ordinal);
+        return slot >= 0 ? values[slot] : defaultValue;
+    }
+
+    public OptionalDouble find(int ordinal) {
+        int slot = slotOf(ordinal);
+        return slot >= 0 ? OptionalDouble.of(values[slot]) : OptionalDouble.empty();
+    }
+
+    private int slotOf(int ordinal) {
+        validRange.checkContains(ordinal, "index");
+        return index.slotOf(ordinal);
+    }
+
+    public OptionalDouble lookup(K key) {
+        requireNonNull(key, "key");
+        return find(ordinal(key));
+    }
+
+    public double require(K key) {
+        return lookup(key).orElseThrow(
+            () -> new IllegalArgumentException("No value for key: #" + ordinal(key) + ": " + key)
+        );
+    }
+
+    private int ordinal(K key) {
+        return keyOrdinalFun.applyAsInt(key);
+    }
+
+    public <T> DoubleLookupTable<T> changeKeys(ToIntFunction<? super T> newKeyOrdinalFun) {
+        return new DoubleLookupTable<>(validRange, index, values, newKeyOrdinalFun);
+    }
+
+    /**
+     * Writes the table to a file to be opened by {@link MappedLookupTable#open} with {@link Serializer#ofDouble()}.
+     *
+     * @throws java.io.UncheckedIOException if writing the file fails
+     */
+    public void writeTo(Path file) {
+        MappedLookupTable.write(file, validRange, Double.BYTES, Serializer.ofDouble(),
+            action -> index.forEach((ordinal, slot) -> action.accept(ordinal, values[slot])));
+    }
+
+    public DoubleLookupTable<K> transformValues(DoubleUnaryOperator transformFun) {
+        requireNonNull(transformFun, "transformFun");
+        double[] transformedValues = new double[values.length];
+        index.forEach((ordinal, slot) -> transformedValues[slot] = transformFun.applyAsDouble(values[slot]));
+        return new DoubleLookupTable<>(validRange, index, transformedValues, keyOrdinalFun);
+    }
+
+}
@@ -2,6 +2,7 @@ package com.doctusoft.dataops;
 
 import java.util.*;
 import java.util.Map.*;
+import java.util.concurrent.*;
 import java.util.function.*;
 import java.util.stream.*;
 
@@ -11,13 +12,44 @@ import static java.util.Objects.*;
 public interface Entries<K, V> {
     
     boolean next(BiConsumer<K, V> action);
+
+    /**
+     * Reports the known properties of these entries using the {@link Spliterator} characteristics, referring to the
+     * keys where applicable: {@link Spliterator#SORTED} means the keys are in the order of {@link #getKeyComparator},
+     * {@link Spliterator#DISTINCT} means no key is repeated. Filters and value transformations preserve these,
+     * key transformations drop them.
+     */
+    default int characteristics() {
+        return Spliterator.ORDERED;
+    }
+
+    default boolean hasCharacteristics(int characteristics) {
+        return (characteristics() & characteristics) == characteristics;
+    }
+
+    /**
+     * @return the order of the keys of {@link Spliterator#SORTED} entries, never {@code null}
+     * @throws IllegalStateException if the entries are not known to be sorted
+     */
+    default Comparator<? super K> getKeyComparator() {
+        throw new IllegalStateException("Entries are not known to be sorted");
+    }
     
+    /**
+     * The entries of a {@link SortedMap} are reported to be {@link Spliterator#SORTED} by the order of the map.
+     */
+    @SuppressWarnings("unchecked")
     static <K, V> Entries<K, V> forMap(Map<K, V> map) {
-        return new EntriesForIterator<>(map.entrySet().iterator());
+        if (map instanceof SortedMap) {
+            Comparator<? super K> keyOrder = ((SortedMap<K, V>) map).comparator();
+            return new EntriesForStream<>(map.entrySet().spliterator(), Spliterator.SORTED | Spliterator.DISTINCT,
+                keyOrder == null ? (Comparator<? super K>) naturalOrder() : keyOrder);
+        }
+        return new EntriesForStream<>(map.entrySet().spliterator(), Spliterator.DISTINCT, null);
     }
 
     static <K, V> Entries<K, V> forEntries(Iterable<Entry<K, V>> entries) {
-        return new EntriesForIterator<>(entries.iterator());
+        return new EntriesForStream<>(entries.spliterator());
     }
 
     static <K, V> Entries<K, V> forIterator(Iterator<Entry<K, V>> iterator) {
@@ -29,7 +61,7 @@ public interface Entries<K, V> {
     }
 
     static <K, V> Entries<K, V> indexValues(Iterable<V> values, Function<? super V, ? extends K> mapperFun) {
-        return new EntriesForValues<>(values.iterator(), mapperFun);
+        return new EntriesForValueStream<>(values.spliterator(), mapperFun);
     }
 
     static <K, V> Entries<K, V> indexValueIterator(Iterator<V> iterator, Function<? super V, ? extends K> mapperFun) {
@@ -41,7 +73,7 @@ public interface Entries<K, V> {
     }
 
     static <K, V> Entries<K, V> lookupKeys(Iterable<K> keys, Function<? super K, ? extends V> lookupFun) {
-        return new EntriesForKeys<>(keys.iterator(), lookupFun);
+        return new EntriesForKeyStream<>(keys.spliterator(), lookupFun);
     }
 
     static <K, V> Entries<K, V> lookupKeyIterator(Iterator<K> iterator, Function<? super K, ? extends V> lookupFun) {
@@ -52,10 +84,84 @@ public interface Entries<K, V> {
         return new EntriesForKeyStream<>(keys.spliterator(), lookupFun);
     }
 
+    /**
+     * Looks up the values of the {@code keys} in batches of {@code batchSize}, making one {@code batchLookupFun}
+     * call per batch - useful when a single lookup is a round trip to a database or a remote cache. Entries are
+     * emitted in the original key order, keys missing from the returned map get a {@code null} value.
+     */
+    static <K, V> Entries<K, V> lookupKeysBatched(Iterable<K> keys, int batchSize,
+        Function<? super List<K>, ? extends Map<K, ? extends V>> batchLookupFun) {
+        return lookupKeysBatched(keys, batchSize, batchLookupFun, MissingKeyPolicy.NULL_VALUE);
+    }
+
+    static <K, V> Entries<K, V> lookupKeysBatched(Iterable<K> keys, int batchSize,
+        Function<? super List<K>, ? extends Map<K, ? extends V>> batchLookupFun, MissingKeyPolicy missingKeyPolicy) {
+        return new EntriesForKeyBatches<>(keys.iterator(), batchSize, batchLookupFun, missingKeyPolicy);
+    }
+
+    /**
+     * Looks up the values of the {@code keys} asynchronously, keeping up to {@code maxInFlight} lookups running
+     * ahead of the consumer. Entries are emitted in the original key order, {@link #next} blocks until the lookup of
+     * the next key completes. Failed lookups - including the exceptions thrown by {@code asyncLookupFun} itself - are
+     * emitted as failed {@link Outcome}s.
+     */
+    static <K, V> Entries<K, Outcome<V, Throwable>> lookupKeysAsync(Iterable<K> keys,
+        Function<? super K, ? extends CompletionStage<? extends V>> asyncLookupFun, int maxInFlight) {
+        requireNonNull(asyncLookupFun);
+        return new EntriesForAsyncKeys<>(keys.iterator(), key -> {
+            CompletionStage<? extends V> lookup;
+            try {
+                lookup = asyncLookupFun.apply(key);
+            } catch (RuntimeException e) {
+                return CompletableFuture.completedFuture(Outcome.failure(e));
+            }
+            return EntriesForAsyncKeys.<V>toOutcome(lookup);
+        }, maxInFlight);
+    }
+
+    /**
+     * Same as {@link #lookupKeysAsync}, with the lookups returning {@link Promise}s. Promise is not thread-safe,
+     * promises finished on another thread have to be finished while holding the monitor of the promise.
+     */
+    static <K, V, F> Entries<K, Outcome<V, F>> lookupKeysPromised(Iterable<K> keys,
+        Function<? super K, Promise<V, F>> promiseLookupFun, int maxInFlight) {
+        requireNonNull(promiseLookupFun);
+        return new EntriesForAsyncKeys<>(keys.iterator(),
+            key -> EntriesForAsyncKeys.toOutcome(promiseLookupFun.apply(key)), maxInFlight);
+    }
+
     static <K extends Comparable<? super K>, V> Entries<K, V> sortAndIndex(List<V> values,
         Function<? super V, ? extends K> mapperFun) {
         values.sort(comparing(mapperFun));
-        return indexValues(values, mapperFun);
+        return new EntriesForValueStream<>(values.spliterator(), mapperFun, Spliterator.SORTED, naturalOrder());
+    }
+
+    /**
+     * Parallel variant of {@link #sortAndIndex}: the keys are extracted only once - in parallel, so
+     * {@code mapperFun} must be thread-safe - and sorted together with the values on the common
+     * {@link java.util.concurrent.ForkJoinPool}. The sort is stable and the list is reordered in place as well.
+     */
+    static <K extends Comparable<? super K>, V> Entries<K, V> parallelSortAndIndex(List<V> values,
+        Function<? super V, ? extends K> mapperFun) {
+        return parallelSortAndIndex(values, mapperFun, naturalOrder());
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> Entries<K, V> parallelSortAndIndex(List<V> values, Function<? super V, ? extends K> mapperFun,
+        Comparator<? super K> keyOrder) {
+        requireNonNull(mapperFun);
+        requireNonNull(keyOrder);
+        Object[] valueColumn = values.toArray();
+        Object[] keyColumn = new Object[valueColumn.length];
+        IntStream.range(0, valueColumn.length).parallel()
+            .forEach(i -> keyColumn[i] = mapperFun.apply((V) valueColumn[i]));
+        ColumnSort.parallelSort(keyColumn, valueColumn, 0, valueColumn.length, keyOrder);
+        ListIterator<V> iterator = values.listIterator();
+        for (Object value : valueColumn) {
+            iterator.next();
+            iterator.set((V) value);
+        }
+        return new EntriesForColumns<>(keyColumn, valueColumn, 0, valueColumn.length, keyOrder);
     }
 
     static <V> Entries<Integer, V> indexedArrayElements(V[] elements) {
@@ -69,23 +175,35 @@ public interface Entries<K, V> {
     }
 
     default Entries<K, V> filterKeys(Predicate<? super K> filter) {
-        requireNonNull(filter);
-        return new FilteredEntries<>(this, filter, FilteredEntries.Always.TRUE);
+        return FusedEntries.over(this).filterKeys(filter);
     }
 
     default Entries<K, V> filterValues(Predicate<? super V> filter) {
-        requireNonNull(filter);
-        return new FilteredEntries<>(this, FilteredEntries.Always.TRUE, filter);
+        return FusedEntries.over(this).filterValues(filter);
     }
 
     default <T> Entries<T, V> transformKeys(Function<? super K, ? extends T> keyFun) {
-        requireNonNull(keyFun);
-        return new TransformedEntries<>(this, keyFun, Function.identity());
+        return FusedEntries.over(this).transformKeys(keyFun);
     }
 
     default <T> Entries<K, T> transformValues(Function<? super V, ? extends T> valueFun) {
-        requireNonNull(valueFun);
-        return new TransformedEntries<>(this, Function.identity(), valueFun);
+        return FusedEntries.over(this).transformValues(valueFun);
+    }
+
+    default Entries<K, V> peek(BiConsumer<? super K, ? super V> action) {
+        return FusedEntries.over(this).peek(action);
+    }
+
+    default Entries<K, V> limit(long maxSize) {
+        return FusedEntries.over(this).limit(maxSize);
+    }
+
+    default IntKeyEntries<V> transformKeysToInt(ToIntFunction<? super K> keyFun) {
+        return new IntKeyEntriesForEntries<>(this, keyFun);
+    }
+
+    default LongKeyEntries<V> transformKeysToLong(ToLongFunction<? super K> keyFun) {
+        return new LongKeyEntriesForEntries<>(this, keyFun);
     }
 
     default List<Entry<K, V>> toList() {
@@ -111,6 +229,29 @@ public interface Entries<K, V> {
         return new EntryGroups<>(this, groupFactory);
     }
     
+    default <A extends HashAggregation<K, V, A>> A aggregateByKey(A aggregation) {
+        requireNonNull(aggregation);
+        forEach(aggregation);
+        return aggregation;
+    }
+    
+    default <A extends HashAggregation<K, V, A>> A aggregateByKeyInParallel(Supplier<? extends A> aggregationFactory) {
+        return HashAggregation.aggregateInParallel(this, aggregationFactory);
+    }
+    
+    default <A> GroupReduction<K, V, A> reduceGroups(GroupAccumulator<? super V, A> accumulator) {
+        return new GroupReduction<>(this, accumulator);
+    }
+    
+    default GroupReduction<K, V, V> reduceGroups(BinaryOperator<V> reducerFun) {
+        return new GroupReduction<>(this, GroupAccumulator.reducing(reducerFun));
+    }
+    
+    default <A> GroupReduction<K, V, A> foldGroups(Supplier<? extends A> seedFactory,
+        BiFunction<? super A, ? super V, ? extends A> folderFun) {
+        return new GroupReduction<>(this, GroupAccumulator.folding(seedFactory, folderFun));
+    }
+    
     default <T> Stream<T> stream(BiFunction<K, V, T> mapperFun) {
         return StreamSupport.stream(new EntriesSpliterator<>(this, mapperFun), false);
     }
@@ -1,10 +1,11 @@
 package com.doctusoft.dataops;
 
+import java.util.*;
 import java.util.function.*;
 
 import static java.util.Objects.requireNonNull;
 
-final class EntriesForArray<E> implements Entries<Integer, E> {
+final class EntriesForArray<E> implements SplittableEntries<Integer, E> {
 
     private final E[] elements;
     private final int ln;
@@ -29,4 +30,28 @@ final class EntriesForArray<E> implements Entries<Integer, E> {
         return false;
     }
 
+    public SplittableEntries<Integer, E> trySplit() {
+        int mid = (i + ln) >>> 1;
+        if (mid <= i) {
+            return null;
+        }
+        EntriesForArray<E> prefix = new EntriesForArray<>(elements, i, mid);
+        i = mid;
+        return prefix;
+    }
+
+    public long estimateSize() {
+        return ln - i;
+    }
+
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.SORTED
+            | Spliterator.DISTINCT;
+    }
+
+    @Override
+    public Comparator<? super Integer> getKeyComparator() {
+        return Comparator.naturalOrder();
+    }
+
 }
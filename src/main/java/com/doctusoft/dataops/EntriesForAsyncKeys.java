@@ -0,0 +1,77 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+import static com.doctusoft.java.Failsafe.checkArgument;
+import static java.util.Objects.*;
+
+/**
+ * Keeps up to {@code maxInFlight} asynchronous lookups running ahead of the consumer. The pending lookups are held
+ * in a ring buffer in key order, so completions arriving out of order wait there until all the preceding keys are
+ * emitted.
+ */
+final class EntriesForAsyncKeys<K, V, F> implements Entries<K, Outcome<V, F>> {
+
+    static <V> CompletableFuture<Outcome<V, Throwable>> toOutcome(CompletionStage<? extends V> stage) {
+        return requireNonNull(stage, "stage").<Outcome<V, Throwable>>handle((result, e) -> e == null
+            ? Outcome.resultOf(result)
+            : Outcome.failure(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e))
+            .toCompletableFuture();
+    }
+
+    static <V, F> CompletableFuture<Outcome<V, F>> toOutcome(Promise<V, F> promise) {
+        CompletableFuture<Outcome<V, F>> future = new CompletableFuture<>();
+        synchronized (requireNonNull(promise, "promise")) {
+            promise.then(result -> future.complete(Outcome.resultOf(result)))
+                .fail(failure -> future.complete(Outcome.failure(failure)));
+        }
+        return future;
+    }
+
+    private final Iterator<K> keyIterator;
+    private final Function<? super K, CompletableFuture<Outcome<V, F>>> lookupFun;
+    private final Object[] pendingKeys;
+    private final CompletableFuture<?>[] pendingLookups;
+    private int head;
+    private int size;
+
+    EntriesForAsyncKeys(Iterator<K> keyIterator, Function<? super K, CompletableFuture<Outcome<V, F>>> lookupFun,
+        int maxInFlight) {
+        checkArgument(maxInFlight > 0, () -> "Invalid maxInFlight: " + maxInFlight);
+        this.keyIterator = requireNonNull(keyIterator, "keyIterator");
+        this.lookupFun = requireNonNull(lookupFun, "lookupFun");
+        this.pendingKeys = new Object[maxInFlight];
+        this.pendingLookups = new CompletableFuture<?>[maxInFlight];
+    }
+
+    @SuppressWarnings("unchecked")
+    public boolean next(BiConsumer<K, Outcome<V, F>> action) {
+        startLookups();
+        if (size == 0) {
+            return false;
+        }
+        K key = (K) pendingKeys[head];
+        CompletableFuture<Outcome<V, F>> lookup = (CompletableFuture<Outcome<V, F>>) pendingLookups[head];
+        pendingKeys[head] = null;
+        pendingLookups[head] = null;
+        head = (head + 1) % pendingKeys.length;
+        --size;
+        Outcome<V, F> outcome = lookup.join();
+        startLookups();
+        action.accept(key, outcome);
+        return true;
+    }
+
+    private void startLookups() {
+        while (size < pendingKeys.length && keyIterator.hasNext()) {
+            K key = keyIterator.next();
+            int tail = (head + size) % pendingKeys.length;
+            pendingLookups[tail] = requireNonNull(lookupFun.apply(key), "lookupFun returned null");
+            pendingKeys[tail] = key;
+            ++size;
+        }
+    }
+
+}
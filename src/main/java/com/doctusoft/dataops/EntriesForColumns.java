@@ -0,0 +1,57 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+final class EntriesForColumns<K, V> implements SplittableEntries<K, V> {
+
+    private final Object[] keys;
+    private final Object[] values;
+    private final int ln;
+    private final Comparator<? super K> keyOrder;
+    private int i;
+
+    EntriesForColumns(Object[] keys, Object[] values, int i, int ln, Comparator<? super K> keyOrder) {
+        this.keys = requireNonNull(keys, "keys");
+        this.values = requireNonNull(values, "values");
+        this.i = i;
+        this.ln = ln;
+        this.keyOrder = requireNonNull(keyOrder, "keyOrder");
+    }
+
+    @SuppressWarnings("unchecked")
+    public boolean next(BiConsumer<K, V> action) {
+        if (i < ln) {
+            action.accept((K) keys[i], (V) values[i]);
+            ++i;
+            return true;
+        }
+        return false;
+    }
+
+    public SplittableEntries<K, V> trySplit() {
+        int mid = (i + ln) >>> 1;
+        if (mid <= i) {
+            return null;
+        }
+        EntriesForColumns<K, V> prefix = new EntriesForColumns<>(keys, values, i, mid, keyOrder);
+        i = mid;
+        return prefix;
+    }
+
+    public long estimateSize() {
+        return ln - i;
+    }
+
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.SORTED;
+    }
+
+    @Override
+    public Comparator<? super K> getKeyComparator() {
+        return keyOrder;
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.doctusoft.dataops;
+
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+final class EntriesForIntKeys<K, V> implements Entries<K, V>, IntKeyConsumer<V> {
+
+    private final IntKeyEntries<V> entries;
+    private final IntFunction<? extends K> keyFun;
+
+    private BiConsumer<K, V> action;
+
+    EntriesForIntKeys(IntKeyEntries<V> entries, IntFunction<? extends K> keyFun) {
+        this.entries = requireNonNull(entries, "entries");
+        this.keyFun = requireNonNull(keyFun, "keyFun");
+    }
+
+    public boolean next(BiConsumer<K, V> action) {
+        this.action = requireNonNull(action);
+        return entries.next(this);
+    }
+
+    public void accept(int key, V value) {
+        action.accept(keyFun.apply(key), value);
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.function.*;
+
+import static com.doctusoft.java.Failsafe.checkArgument;
+import static java.util.Objects.*;
+
+final class EntriesForKeyBatches<K, V> implements Entries<K, V> {
+
+    private final Iterator<K> keyIterator;
+    private final int batchSize;
+    private final Function<? super List<K>, ? extends Map<K, ? extends V>> batchLookupFun;
+    private final MissingKeyPolicy missingKeyPolicy;
+    private List<K> batch = Collections.emptyList();
+    private Map<K, ? extends V> batchValues = Collections.emptyMap();
+    private int i;
+
+    EntriesForKeyBatches(Iterator<K> keyIterator, int batchSize,
+        Function<? super List<K>, ? extends Map<K, ? extends V>> batchLookupFun, MissingKeyPolicy missingKeyPolicy) {
+        checkArgument(batchSize > 0, () -> "Invalid batchSize: " + batchSize);
+        this.keyIterator = requireNonNull(keyIterator, "keyIterator");
+        this.batchSize = batchSize;
+        this.batchLookupFun = requireNonNull(batchLookupFun, "batchLookupFun");
+        this.missingKeyPolicy = requireNonNull(missingKeyPolicy, "missingKeyPolicy");
+    }
+
+    public boolean next(BiConsumer<K, V> action) {
+        while (i < batch.size() || fetchBatch()) {
+            K key = batch.get(i++);
+            V value = batchValues.get(key);
+            if (value == null && !batchValues.containsKey(key)) {
+                if (missingKeyPolicy == MissingKeyPolicy.SKIP) {
+                    continue;
+                }
+                if (missingKeyPolicy == MissingKeyPolicy.FAIL) {
+                    throw new IllegalArgumentException("No value for key: " + key);
+                }
+            }
+            action.accept(key, value);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean fetchBatch() {
+        if (!keyIterator.hasNext()) {
+            batch = Collections.emptyList();
+            batchValues = Collections.emptyMap();
+            i = 0;
+            return false;
+        }
+        List<K> keys = new ArrayList<>(batchSize);
+        do {
+            keys.add(keyIterator.next());
+        } while (keys.size() < batchSize && keyIterator.hasNext());
+        batchValues = requireNonNull(batchLookupFun.apply(Collections.unmodifiableList(keys)),
+            "batchLookupFun returned null");
+        batch = keys;
+        i = 0;
+        return true;
+    }
+
+}
@@ -5,18 +5,51 @@ import java.util.function.*;
 
 import static java.util.Objects.*;
 
-final class EntriesForKeyStream<K, V> implements Entries<K, V> {
+final class EntriesForKeyStream<K, V> implements SplittableEntries<K, V>, Consumer<K> {
 
     private final Spliterator<K> spliterator;
     private final Function<? super K, ? extends V> lookupFun;
 
+    private BiConsumer<K, V> action;
+
     EntriesForKeyStream(Spliterator<K> spliterator, Function<? super K, ? extends V> lookupFun) {
         this.spliterator = requireNonNull(spliterator);
         this.lookupFun = requireNonNull(lookupFun);
     }
 
     public boolean next(BiConsumer<K, V> consumer) {
-        return spliterator.tryAdvance(k -> consumer.accept(k, lookupFun.apply(k)));
+        this.action = requireNonNull(consumer);
+        return spliterator.tryAdvance(this);
+    }
+
+    public void accept(K key) {
+        action.accept(key, lookupFun.apply(key));
+    }
+
+    @Override
+    public void forEach(BiConsumer<K, V> consumer) {
+        this.action = requireNonNull(consumer);
+        spliterator.forEachRemaining(this);
+    }
+    
+    public SplittableEntries<K, V> trySplit() {
+        Spliterator<K> prefix = spliterator.trySplit();
+        return prefix == null ? null : new EntriesForKeyStream<>(prefix, lookupFun);
+    }
+
+    public long estimateSize() {
+        return spliterator.estimateSize();
+    }
+
+    public int characteristics() {
+        return spliterator.characteristics();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Comparator<? super K> getKeyComparator() {
+        Comparator<? super K> keyComparator = spliterator.getComparator();
+        return keyComparator == null ? (Comparator<? super K>) Comparator.naturalOrder() : keyComparator;
     }
     
 }
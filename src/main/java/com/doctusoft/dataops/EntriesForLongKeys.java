@@ -0,0 +1,28 @@
+package com.doctusoft.dataops;
+
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+final class EntriesForLongKeys<K, V> implements Entries<K, V>, LongKeyConsumer<V> {
+
+    private final LongKeyEntries<V> entries;
+    private final LongFunction<? extends K> keyFun;
+
+    private BiConsumer<K, V> action;
+
+    EntriesForLongKeys(LongKeyEntries<V> entries, LongFunction<? extends K> keyFun) {
+        this.entries = requireNonNull(entries, "entries");
+        this.keyFun = requireNonNull(keyFun, "keyFun");
+    }
+
+    public boolean next(BiConsumer<K, V> action) {
+        this.action = requireNonNull(action);
+        return entries.next(this);
+    }
+
+    public void accept(long key, V value) {
+        action.accept(keyFun.apply(key), value);
+    }
+
+}
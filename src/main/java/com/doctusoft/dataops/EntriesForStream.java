@@ -3,18 +3,64 @@ package com.doctusoft.dataops;
 import java.util.*;
 import java.util.function.*;
 
+import static com.doctusoft.java.Failsafe.checkState;
 import static java.util.Objects.*;
 
-final class EntriesForStream<K, V> implements Entries<K, V> {
+final class EntriesForStream<K, V> implements SplittableEntries<K, V>, Consumer<Map.Entry<K, V>> {
     
     private final Spliterator<Map.Entry<K, V>> spliterator;
 
+    /**
+     * The {@code SORTED} and {@code DISTINCT} characteristics of the spliterator refer to the entries, not the keys.
+     */
+    private final int keyCharacteristics;
+    private final Comparator<? super K> keyComparator;
+
+    private BiConsumer<K, V> action;
+
     EntriesForStream(Spliterator<Map.Entry<K, V>> spliterator) {
+        this(spliterator, 0, null);
+    }
+
+    EntriesForStream(Spliterator<Map.Entry<K, V>> spliterator, int keyCharacteristics,
+        Comparator<? super K> keyComparator) {
         this.spliterator = requireNonNull(spliterator);
+        this.keyCharacteristics = keyCharacteristics;
+        this.keyComparator = keyComparator;
     }
     
     public boolean next(BiConsumer<K, V> consumer) {
-        return spliterator.tryAdvance(e -> consumer.accept(e.getKey(), e.getValue()));
+        this.action = requireNonNull(consumer);
+        return spliterator.tryAdvance(this);
+    }
+
+    public void accept(Map.Entry<K, V> entry) {
+        action.accept(entry.getKey(), entry.getValue());
+    }
+
+    @Override
+    public void forEach(BiConsumer<K, V> consumer) {
+        this.action = requireNonNull(consumer);
+        spliterator.forEachRemaining(this);
+    }
+    
+    public SplittableEntries<K, V> trySplit() {
+        Spliterator<Map.Entry<K, V>> prefix = spliterator.trySplit();
+        return prefix == null ? null : new EntriesForStream<>(prefix, keyCharacteristics, keyComparator);
+    }
+
+    public long estimateSize() {
+        return spliterator.estimateSize();
+    }
+
+    public int characteristics() {
+        return spliterator.characteristics() & ~(Spliterator.SORTED | Spliterator.DISTINCT) | keyCharacteristics;
+    }
+
+    @Override
+    public Comparator<? super K> getKeyComparator() {
+        checkState((keyCharacteristics & Spliterator.SORTED) != 0, "Entries are not known to be sorted");
+        return keyComparator;
     }
     
 }
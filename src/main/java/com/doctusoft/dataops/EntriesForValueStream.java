@@ -3,20 +3,68 @@ package com.doctusoft.dataops;
 import java.util.*;
 import java.util.function.*;
 
+import static com.doctusoft.java.Failsafe.checkState;
 import static java.util.Objects.*;
 
-final class EntriesForValueStream<K, V> implements Entries<K, V> {
+final class EntriesForValueStream<K, V> implements SplittableEntries<K, V>, Consumer<V> {
 
     private final Spliterator<V> spliterator;
     private final Function<? super V, ? extends K> mapperFun;
 
+    /**
+     * Keys are computed from the values, so only the explicitly known key characteristics can be reported.
+     */
+    private final int keyCharacteristics;
+    private final Comparator<? super K> keyComparator;
+
+    private BiConsumer<K, V> action;
+
     EntriesForValueStream(Spliterator<V> spliterator, Function<? super V, ? extends K> mapperFun) {
+        this(spliterator, mapperFun, 0, null);
+    }
+
+    EntriesForValueStream(Spliterator<V> spliterator, Function<? super V, ? extends K> mapperFun,
+        int keyCharacteristics, Comparator<? super K> keyComparator) {
         this.spliterator = requireNonNull(spliterator);
         this.mapperFun = requireNonNull(mapperFun);
+        this.keyCharacteristics = keyCharacteristics;
+        this.keyComparator = keyComparator;
     }
 
     public boolean next(BiConsumer<K, V> consumer) {
-        return spliterator.tryAdvance(v -> consumer.accept(mapperFun.apply(v), v));
+        this.action = requireNonNull(consumer);
+        return spliterator.tryAdvance(this);
+    }
+
+    public void accept(V value) {
+        action.accept(mapperFun.apply(value), value);
+    }
+
+    @Override
+    public void forEach(BiConsumer<K, V> consumer) {
+        this.action = requireNonNull(consumer);
+        spliterator.forEachRemaining(this);
+    }
+    
+    public SplittableEntries<K, V> trySplit() {
+        Spliterator<V> prefix = spliterator.trySplit();
+        return prefix == null
+            ? null
+            : new EntriesForValueStream<>(prefix, mapperFun, keyCharacteristics, keyComparator);
+    }
+
+    public long estimateSize() {
+        return spliterator.estimateSize();
+    }
+
+    public int characteristics() {
+        return spliterator.characteristics() & ~(Spliterator.SORTED | Spliterator.DISTINCT) | keyCharacteristics;
+    }
+
+    @Override
+    public Comparator<? super K> getKeyComparator() {
+        checkState((keyCharacteristics & Spliterator.SORTED) != 0, "Entries are not known to be sorted");
+        return keyComparator;
     }
     
 }
@@ -6,30 +6,65 @@ import java.util.function.*;
 import static java.util.Objects.requireNonNull;
 
 public class EntriesSpliterator<K, V, T> implements Spliterator<T> {
-    
+
+    /**
+     * Characteristics of the source that still hold after mapping the entries with an arbitrary function.
+     */
+    private static final int PRESERVED_CHARACTERISTICS = ORDERED | SIZED | SUBSIZED | IMMUTABLE | CONCURRENT;
+
     private final Entries<K, V> entries;
-    
+
     private final BiFunction<K, V, T> mapperFun;
-    
+
+    private final BiConsumer<K, V> mappingConsumer = this::acceptEntry;
+
+    private Consumer<? super T> action;
+
     EntriesSpliterator(Entries<K, V> entries, BiFunction<K, V, T> mapperFun) {
         this.entries = requireNonNull(entries);
         this.mapperFun = requireNonNull(mapperFun);
     }
 
     public boolean tryAdvance(Consumer<? super T> action) {
-        return entries.next((k, v) -> action.accept(mapperFun.apply(k, v)));
+        this.action = requireNonNull(action);
+        return entries.next(mappingConsumer);
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        this.action = requireNonNull(action);
+        entries.forEach(mappingConsumer);
+    }
+
+    private void acceptEntry(K key, V value) {
+        action.accept(mapperFun.apply(key, value));
     }
 
     public Spliterator<T> trySplit() {
-        return null;
+        SplittableEntries<K, V> prefix = trySplit(entries);
+        return prefix == null ? null : new EntriesSpliterator<>(prefix, mapperFun);
     }
 
     public long estimateSize() {
-        return Long.MAX_VALUE;
+        return estimateSize(entries);
     }
 
     public int characteristics() {
-        return ORDERED & NONNULL & IMMUTABLE;
+        return entries.characteristics() & PRESERVED_CHARACTERISTICS;
+    }
+
+    static <K, V> SplittableEntries<K, V> trySplit(Entries<K, V> entries) {
+        if (entries instanceof SplittableEntries) {
+            return ((SplittableEntries<K, V>) entries).trySplit();
+        }
+        return null;
     }
-    
+
+    static long estimateSize(Entries<?, ?> entries) {
+        if (entries instanceof SplittableEntries) {
+            return ((SplittableEntries<?, ?>) entries).estimateSize();
+        }
+        return Long.MAX_VALUE;
+    }
+
 }
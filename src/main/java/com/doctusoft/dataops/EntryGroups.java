@@ -10,29 +10,53 @@ public final class EntryGroups<K, V, G extends Collection<V>> implements Entries
     private final Entries<K, V> entries;
     private final Supplier<? extends G> factory;
     private final BiPredicate<K, K> keyEquality;
+    private final Comparator<? super K> keyOrder;
     
-    private Entries<K, V> it;
+    private final BiConsumer<K, V> valueConsumer = this::acceptValue;
     
     private G actualGroup;
     private K actualKey;
     
+    private K pendingKey;
+    private V pendingValue;
+    
     public EntryGroups(Entries<K, V> entries, Supplier<? extends G> factory) {
         this(entries, factory, Objects::equals);
     }
     
     public EntryGroups(Entries<K, V> entries, Supplier<? extends G> factory, BiPredicate<K, K> keyEquality) {
+        this(entries, factory, keyEquality, null);
+    }
+    
+    private EntryGroups(Entries<K, V> entries, Supplier<? extends G> factory, BiPredicate<K, K> keyEquality,
+        Comparator<? super K> keyOrder) {
         this.entries = requireNonNull(entries, "entries");
         this.factory = requireNonNull(factory, "factory");
         this.keyEquality = requireNonNull(keyEquality, "keyEquality");
-        this.it = entries;
+        this.keyOrder = keyOrder;
+    }
+    
+    /**
+     * Groups the keys equal by the {@code keyOrder}, so the groups of entries sorted by the same order are known to
+     * have distinct keys.
+     */
+    static <K, V, G extends Collection<V>> EntryGroups<K, V, G> byKeyOrder(Entries<K, V> entries,
+        Supplier<? extends G> factory, Comparator<? super K> keyOrder) {
+        requireNonNull(keyOrder, "keyOrder");
+        return new EntryGroups<>(entries, factory, (left, right) -> keyOrder.compare(left, right) == 0, keyOrder);
     }
     
     public boolean next(BiConsumer<K, G> action) {
         requireNonNull(action);
-        while (it.next(this::acceptValue)) {
-            if (it != entries) {
-                break;
-            }
+        if (pendingKey != null) {
+            K key = pendingKey;
+            V value = pendingValue;
+            pendingKey = null;
+            pendingValue = null;
+            acceptValue(key, value);
+        }
+        while (pendingKey == null && entries.next(valueConsumer)) {
+            // nothing more to do here
         }
         boolean result = actualKey != null;
         if (result) {
@@ -43,6 +67,21 @@ public final class EntryGroups<K, V, G extends Collection<V>> implements Entries
         return result;
     }
     
+    @Override
+    public int characteristics() {
+        int characteristics = entries.characteristics() & (Spliterator.ORDERED | Spliterator.SORTED);
+        if ((characteristics & Spliterator.SORTED) != 0 && keyOrder != null
+            && keyOrder.equals(entries.getKeyComparator())) {
+            characteristics |= Spliterator.DISTINCT;
+        }
+        return characteristics;
+    }
+    
+    @Override
+    public Comparator<? super K> getKeyComparator() {
+        return entries.getKeyComparator();
+    }
+    
     private void acceptValue(K key, V value) {
         if (actualKey == null) {
             actualKey = key;
@@ -51,11 +90,8 @@ public final class EntryGroups<K, V, G extends Collection<V>> implements Entries
         } else if (key == actualKey || keyEquality.test(key, actualKey)) {
             addValueToGroup(value);
         } else {
-            it = action -> {
-                action.accept(key, value);
-                it = entries;
-                return true;
-            };
+            pendingKey = key;
+            pendingValue = value;
         }
     }
 
@@ -0,0 +1,379 @@
+package com.doctusoft.dataops;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.*;
+
+import static com.doctusoft.java.Failsafe.checkArgument;
+import static java.util.Objects.*;
+
+/**
+ * Sorts {@link Entries} by key regardless of the available heap: entries are collected into sorted runs bounded by a
+ * memory budget, runs are spilled to temporary files using the given {@link Serializer}s and merged back lazily with
+ * a k-way loser tree. The sort is stable, entries with equal keys keep their original order.
+ * <p>
+ * ExternalSort instances are immutable, the {@code with...} methods return new instances.
+ * </p>
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class ExternalSort<K, V> {
+
+    public static <K, V> ExternalSort<K, V> by(Comparator<? super K> keyOrder, Serializer<K> keySerializer,
+        Serializer<V> valueSerializer) {
+        return new ExternalSort<>(keyOrder, keySerializer, valueSerializer, DEFAULT_MAX_ENTRIES_IN_MEMORY,
+            Long.MAX_VALUE, null, null);
+    }
+
+    public static <K extends Comparable<? super K>, V> ExternalSort<K, V> natural(Serializer<K> keySerializer,
+        Serializer<V> valueSerializer) {
+        return by(Comparator.naturalOrder(), keySerializer, valueSerializer);
+    }
+
+    private static final int DEFAULT_MAX_ENTRIES_IN_MEMORY = 1 << 20;
+
+    private final Comparator<? super K> keyOrder;
+    private final Serializer<K> keySerializer;
+    private final Serializer<V> valueSerializer;
+    private final int maxEntriesInMemory;
+    private final long memoryBudget;
+    private final ToLongBiFunction<? super K, ? super V> entrySizeFun;
+    private final Path tempDirectory;
+
+    private ExternalSort(Comparator<? super K> keyOrder, Serializer<K> keySerializer, Serializer<V> valueSerializer,
+        int maxEntriesInMemory, long memoryBudget, ToLongBiFunction<? super K, ? super V> entrySizeFun,
+        Path tempDirectory) {
+        this.keyOrder = requireNonNull(keyOrder, "keyOrder");
+        this.keySerializer = requireNonNull(keySerializer, "keySerializer");
+        this.valueSerializer = requireNonNull(valueSerializer, "valueSerializer");
+        this.maxEntriesInMemory = maxEntriesInMemory;
+        this.memoryBudget = memoryBudget;
+        this.entrySizeFun = entrySizeFun;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Limits the number of entries held in memory by a single sorted run.
+     */
+    public ExternalSort<K, V> withMaxEntriesInMemory(int maxEntriesInMemory) {
+        checkArgument(maxEntriesInMemory > 0, () -> "Invalid maxEntriesInMemory: " + maxEntriesInMemory);
+        return new ExternalSort<>(keyOrder, keySerializer, valueSerializer, maxEntriesInMemory, memoryBudget,
+            entrySizeFun, tempDirectory);
+    }
+
+    /**
+     * Limits the estimated heap used by a single sorted run.
+     *
+     * @param memoryBudget the budget in bytes
+     * @param entrySizeFun estimates the heap used by an entry in bytes
+     */
+    public ExternalSort<K, V> withMemoryBudget(long memoryBudget, ToLongBiFunction<? super K, ? super V> entrySizeFun) {
+        checkArgument(memoryBudget > 0, () -> "Invalid memoryBudget: " + memoryBudget);
+        requireNonNull(entrySizeFun, "entrySizeFun");
+        return new ExternalSort<>(keyOrder, keySerializer, valueSerializer, maxEntriesInMemory, memoryBudget,
+            entrySizeFun, tempDirectory);
+    }
+
+    /**
+     * Sets the directory of the temporary run files, defaults to {@code java.io.tmpdir}.
+     */
+    public ExternalSort<K, V> withTempDirectory(Path tempDirectory) {
+        requireNonNull(tempDirectory, "tempDirectory");
+        return new ExternalSort<>(keyOrder, keySerializer, valueSerializer, maxEntriesInMemory, memoryBudget,
+            entrySizeFun, tempDirectory);
+    }
+
+    /**
+     * Consumes all the given {@code entries} and returns them sorted. Temporary files are deleted as soon as the
+     * returned entries are exhausted or closed.
+     *
+     * @throws UncheckedIOException if spilling the sorted runs fails
+     */
+    public SortedEntries<K, V> sort(Entries<K, V> entries) {
+        requireNonNull(entries, "entries");
+        RunBuilder runBuilder = new RunBuilder();
+        try {
+            entries.forEach(runBuilder);
+            if (runBuilder.files.isEmpty()) {
+                ColumnSort.sort(runBuilder.keys, runBuilder.values, 0, runBuilder.size, keyOrder);
+                return new SortedEntries<>(new InMemoryRun<>(runBuilder.keys, runBuilder.values, runBuilder.size),
+                    keyOrder);
+            }
+            runBuilder.spill();
+            return new SortedEntries<>(new MergedRuns(runBuilder.files), keyOrder);
+        } catch (IOException e) {
+            runBuilder.deleteFiles();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException | Error e) {
+            runBuilder.deleteFiles();
+            throw e;
+        }
+    }
+
+    /**
+     * The result of an {@link ExternalSort}, to be closed when abandoned before being exhausted to release the
+     * temporary files.
+     */
+    public static final class SortedEntries<K, V> implements Entries<K, V>, Closeable {
+
+        private final Run<K, V> run;
+        private final Comparator<? super K> keyOrder;
+
+        private SortedEntries(Run<K, V> run, Comparator<? super K> keyOrder) {
+            this.run = run;
+            this.keyOrder = keyOrder;
+        }
+
+        public boolean next(BiConsumer<K, V> action) {
+            requireNonNull(action);
+            try {
+                return run.next(action);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SORTED;
+        }
+
+        @Override
+        public Comparator<? super K> getKeyComparator() {
+            return keyOrder;
+        }
+
+        @Override
+        public void close() {
+            try {
+                run.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private interface Run<K, V> extends Closeable {
+
+        boolean next(BiConsumer<K, V> action) throws IOException;
+    }
+
+    private final class RunBuilder implements BiConsumer<K, V> {
+
+        private final List<Path> files = new ArrayList<>();
+        private Object[] keys = new Object[16];
+        private Object[] values = new Object[16];
+        private int size;
+        private long estimatedSize;
+
+        public void accept(K key, V value) {
+            if (size == keys.length) {
+                int capacity = (int) Math.min((long) size << 1, maxEntriesInMemory);
+                keys = Arrays.copyOf(keys, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            keys[size] = requireNonNull(key, "key");
+            values[size++] = value;
+            if (entrySizeFun != null) {
+                estimatedSize += entrySizeFun.applyAsLong(key, value);
+            }
+            if (size >= maxEntriesInMemory || estimatedSize >= memoryBudget) {
+                try {
+                    spill();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void spill() throws IOException {
+            if (size == 0) {
+                return;
+            }
+            ColumnSort.sort(keys, values, 0, size, keyOrder);
+            Path file = tempDirectory == null
+                ? Files.createTempFile("entries-run-", ".tmp")
+                : Files.createTempFile(tempDirectory, "entries-run-", ".tmp");
+            files.add(file);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                out.writeInt(size);
+                for (int i = 0; i < size; ++i) {
+                    keySerializer.write((K) keys[i], out);
+                    valueSerializer.write((V) values[i], out);
+                }
+            }
+            Arrays.fill(keys, 0, size, null);
+            Arrays.fill(values, 0, size, null);
+            size = 0;
+            estimatedSize = 0;
+        }
+
+        private void deleteFiles() {
+            for (Path file : files) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    // the original failure is more relevant
+                }
+            }
+        }
+    }
+
+    private static final class InMemoryRun<K, V> implements Run<K, V> {
+
+        private Object[] keys;
+        private Object[] values;
+        private final int size;
+        private int i;
+
+        private InMemoryRun(Object[] keys, Object[] values, int size) {
+            this.keys = keys;
+            this.values = values;
+            this.size = size;
+        }
+
+        @SuppressWarnings("unchecked")
+        public boolean next(BiConsumer<K, V> action) {
+            if (i < size) {
+                K key = (K) keys[i];
+                V value = (V) values[i];
+                keys[i] = null;
+                values[i++] = null;
+                action.accept(key, value);
+                return true;
+            }
+            return false;
+        }
+
+        public void close() {
+            i = size;
+            keys = values = new Object[0];
+        }
+    }
+
+    /**
+     * Merges the sorted run files with a loser tree: {@code tree[0]} is the run holding the smallest head entry and
+     * every inner node holds the loser of the comparison made at that node, so advancing the winner run costs
+     * {@code log2(k)} comparisons.
+     */
+    private final class MergedRuns implements Run<K, V> {
+
+        private final List<Path> files;
+        private final DataInputStream[] inputs;
+        private final int[] remaining;
+        private final Object[] headKeys;
+        private final Object[] headValues;
+        private final int[] tree;
+        private final int k;
+        private boolean closed;
+
+        private MergedRuns(List<Path> files) throws IOException {
+            this.files = files;
+            this.k = files.size();
+            this.inputs = new DataInputStream[k];
+            this.remaining = new int[k];
+            this.headKeys = new Object[k];
+            this.headValues = new Object[k];
+            this.tree = new int[k];
+            try {
+                for (int i = 0; i < k; ++i) {
+                    inputs[i] = new DataInputStream(new BufferedInputStream(Files.newInputStream(files.get(i))));
+                    remaining[i] = inputs[i].readInt();
+                    advance(i);
+                }
+            } catch (IOException | RuntimeException e) {
+                close();
+                throw e;
+            }
+            Arrays.fill(tree, -1);
+            for (int i = k - 1; i >= 0; --i) {
+                adjust(i);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        public boolean next(BiConsumer<K, V> action) throws IOException {
+            if (closed) {
+                return false;
+            }
+            int winner = tree[0];
+            if (remaining[winner] < 0) {
+                close();
+                return false;
+            }
+            K key = (K) headKeys[winner];
+            V value = (V) headValues[winner];
+            advance(winner);
+            adjust(winner);
+            action.accept(key, value);
+            return true;
+        }
+
+        private void advance(int run) throws IOException {
+            if (remaining[run] == 0) {
+                remaining[run] = -1;
+                headKeys[run] = null;
+                headValues[run] = null;
+                inputs[run].close();
+                return;
+            }
+            --remaining[run];
+            headKeys[run] = keySerializer.read(inputs[run]);
+            headValues[run] = valueSerializer.read(inputs[run]);
+        }
+
+        private void adjust(int run) {
+            int winner = run;
+            for (int node = (run + k) >>> 1; node > 0; node >>>= 1) {
+                if (beats(tree[node], winner)) {
+                    int loser = winner;
+                    winner = tree[node];
+                    tree[node] = loser;
+                }
+            }
+            tree[0] = winner;
+        }
+
+        /**
+         * Exhausted runs lose against everything, {@code -1} marks the virtual winner used while building the tree,
+         * ties are broken by the run index to keep the sort stable.
+         */
+        @SuppressWarnings("unchecked")
+        private boolean beats(int a, int b) {
+            if (a < 0 || b < 0) {
+                return a < 0;
+            }
+            if (remaining[a] < 0 || remaining[b] < 0) {
+                return remaining[b] < 0 && remaining[a] >= 0;
+            }
+            int c = keyOrder.compare((K) headKeys[a], (K) headKeys[b]);
+            return c < 0 || (c == 0 && a < b);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            IOException failure = null;
+            for (int i = 0; i < k; ++i) {
+                try {
+                    if (inputs[i] != null) {
+                        inputs[i].close();
+                    }
+                    Files.deleteIfExists(files.get(i));
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+}
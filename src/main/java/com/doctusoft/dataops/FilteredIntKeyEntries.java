@@ -0,0 +1,68 @@
+package com.doctusoft.dataops;
+
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+final class FilteredIntKeyEntries<V> implements IntKeyEntries<V>, IntKeyConsumer<V> {
+
+    static final IntPredicate ALWAYS_TRUE = k -> true;
+
+    private final IntKeyEntries<V> entries;
+    private final IntPredicate keyFilter;
+    private final Predicate<? super V> valueFilter;
+
+    private IntKeyConsumer<V> action;
+    private boolean finished;
+
+    FilteredIntKeyEntries(IntKeyEntries<V> entries, IntPredicate keyFilter, Predicate<? super V> valueFilter) {
+        this.entries = requireNonNull(entries, "entries");
+        this.keyFilter = requireNonNull(keyFilter, "keyFilter");
+        this.valueFilter = requireNonNull(valueFilter, "valueFilter");
+    }
+
+    public boolean next(IntKeyConsumer<V> action) {
+        this.action = requireNonNull(action);
+        finished = false;
+        while (entries.next(this) && !finished) {
+            // nothing more to do here
+        }
+        return finished;
+    }
+
+    public void accept(int key, V value) {
+        if (!finished && keyFilter.test(key) && valueFilter.test(value)) {
+            action.accept(key, value);
+            finished = true;
+        }
+    }
+
+    @Override
+    public void forEach(IntKeyConsumer<V> action) {
+        requireNonNull(action);
+        entries.forEach((k, v) -> {
+            if (keyFilter.test(k) && valueFilter.test(v)) {
+                action.accept(k, v);
+            }
+        });
+    }
+
+    public IntKeyEntries<V> filterKeys(IntPredicate filter) {
+        requireNonNull(filter);
+        return new FilteredIntKeyEntries<>(entries, keyFilter == ALWAYS_TRUE ? filter : keyFilter.and(filter),
+            valueFilter);
+    }
+
+    public IntKeyEntries<V> filterValues(Predicate<? super V> filter) {
+        return new FilteredIntKeyEntries<>(entries, keyFilter, withValueFilter(filter));
+    }
+
+    private Predicate<? super V> withValueFilter(Predicate<? super V> newFilter) {
+        requireNonNull(newFilter);
+        if (valueFilter == Always.TRUE) {
+            return newFilter;
+        }
+        return v -> valueFilter.test(v) && newFilter.test(v);
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.doctusoft.dataops;
+
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+final class FilteredLongKeyEntries<V> implements LongKeyEntries<V>, LongKeyConsumer<V> {
+
+    static final LongPredicate ALWAYS_TRUE = k -> true;
+
+    private final LongKeyEntries<V> entries;
+    private final LongPredicate keyFilter;
+    private final Predicate<? super V> valueFilter;
+
+    private LongKeyConsumer<V> action;
+    private boolean finished;
+
+    FilteredLongKeyEntries(LongKeyEntries<V> entries, LongPredicate keyFilter, Predicate<? super V> valueFilter) {
+        this.entries = requireNonNull(entries, "entries");
+        this.keyFilter = requireNonNull(keyFilter, "keyFilter");
+        this.valueFilter = requireNonNull(valueFilter, "valueFilter");
+    }
+
+    public boolean next(LongKeyConsumer<V> action) {
+        this.action = requireNonNull(action);
+        finished = false;
+        while (entries.next(this) && !finished) {
+            // nothing more to do here
+        }
+        return finished;
+    }
+
+    public void accept(long key, V value) {
+        if (!finished && keyFilter.test(key) && valueFilter.test(value)) {
+            action.accept(key, value);
+            finished = true;
+        }
+    }
+
+    @Override
+    public void forEach(LongKeyConsumer<V> action) {
+        requireNonNull(action);
+        entries.forEach((k, v) -> {
+            if (keyFilter.test(k) && valueFilter.test(v)) {
+                action.accept(k, v);
+            }
+        });
+    }
+
+    public LongKeyEntries<V> filterKeys(LongPredicate filter) {
+        requireNonNull(filter);
+        return new FilteredLongKeyEntries<>(entries, keyFilter == ALWAYS_TRUE ? filter : keyFilter.and(filter),
+            valueFilter);
+    }
+
+    public LongKeyEntries<V> filterValues(Predicate<? super V> filter) {
+        return new FilteredLongKeyEntries<>(entries, keyFilter, withValueFilter(filter));
+    }
+
+    private Predicate<? super V> withValueFilter(Predicate<? super V> newFilter) {
+        requireNonNull(newFilter);
+        if (valueFilter == Always.TRUE) {
+            return newFilter;
+        }
+        return v -> valueFilter.test(v) && newFilter.test(v);
+    }
+
+}
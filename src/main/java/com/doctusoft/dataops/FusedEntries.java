@@ -0,0 +1,203 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.function.*;
+
+import static com.doctusoft.java.Failsafe.checkArgument;
+import static com.doctusoft.java.Failsafe.checkState;
+import static java.util.Objects.*;
+
+/**
+ * Any chain of filter, transform, limit and peek stages over a single source is collapsed into one instance: the
+ * stages are kept in a flat array and evaluated in a single loop for each entry pulled from the source, so a deep
+ * pipeline costs one {@code next} call on the source per element instead of one virtual call per layer.
+ */
+@SuppressWarnings({ "unchecked", "rawtypes" })
+final class FusedEntries<K, V> implements SplittableEntries<K, V>, BiConsumer<Object, Object> {
+
+    static <K, V> FusedEntries<K, V> over(Entries<K, V> source) {
+        return new FusedEntries<>((Entries) source, NO_STAGES);
+    }
+
+    private static final Stage[] NO_STAGES = {};
+
+    private final Entries<Object, Object> source;
+    private final Stage[] stages;
+    private final long[] remaining;
+
+    private BiConsumer<K, V> action;
+    private boolean found;
+    private boolean exhausted;
+
+    private FusedEntries(Entries<Object, Object> source, Stage[] stages) {
+        this.source = requireNonNull(source, "source");
+        this.stages = stages;
+        this.remaining = new long[stages.length];
+        for (int i = 0; i < stages.length; ++i) {
+            if (stages[i].kind == Kind.LIMIT) {
+                remaining[i] = stages[i].limit;
+                exhausted |= remaining[i] == 0;
+            }
+        }
+    }
+
+    public boolean next(BiConsumer<K, V> action) {
+        this.action = requireNonNull(action);
+        found = false;
+        while (!found && !exhausted && source.next(this)) {
+            // nothing more to do here
+        }
+        return found;
+    }
+
+    @Override
+    public void forEach(BiConsumer<K, V> action) {
+        this.action = requireNonNull(action);
+        if (hasStage(Kind.LIMIT)) {
+            while (!exhausted && source.next(this)) {
+                // limited pipelines must stop pulling the source as soon as possible
+            }
+        } else {
+            source.forEach(this);
+        }
+    }
+
+    public void accept(Object key, Object value) {
+        Stage[] stages = this.stages;
+        for (int i = 0, ln = stages.length; i < ln; ++i) {
+            Stage stage = stages[i];
+            switch (stage.kind) {
+                case FILTER_KEY:
+                    if (!((Predicate) stage.fun).test(key)) {
+                        return;
+                    }
+                    break;
+                case FILTER_VALUE:
+                    if (!((Predicate) stage.fun).test(value)) {
+                        return;
+                    }
+                    break;
+                case TRANSFORM_KEY:
+                    key = ((Function) stage.fun).apply(key);
+                    break;
+                case TRANSFORM_VALUE:
+                    value = ((Function) stage.fun).apply(value);
+                    break;
+                case PEEK:
+                    ((BiConsumer) stage.fun).accept(key, value);
+                    break;
+                case LIMIT:
+                    if (--remaining[i] == 0) {
+                        exhausted = true;
+                    }
+                    break;
+            }
+        }
+        found = true;
+        action.accept((K) key, (V) value);
+    }
+
+    public SplittableEntries<K, V> trySplit() {
+        if (hasStage(Kind.LIMIT)) {
+            return null;
+        }
+        SplittableEntries<Object, Object> prefix = EntriesSpliterator.trySplit(source);
+        return prefix == null ? null : new FusedEntries<>(prefix, stages);
+    }
+
+    public long estimateSize() {
+        long size = EntriesSpliterator.estimateSize(source);
+        for (int i = 0; i < stages.length; ++i) {
+            if (stages[i].kind == Kind.LIMIT) {
+                size = Math.min(size, remaining[i]);
+            }
+        }
+        return size;
+    }
+
+    public int characteristics() {
+        int characteristics = source.characteristics();
+        if (hasStage(Kind.FILTER_KEY) || hasStage(Kind.FILTER_VALUE) || hasStage(Kind.LIMIT)) {
+            characteristics &= ~(Spliterator.SIZED | Spliterator.SUBSIZED);
+        }
+        if (hasStage(Kind.TRANSFORM_KEY)) {
+            characteristics &= ~(Spliterator.SORTED | Spliterator.DISTINCT);
+        }
+        return characteristics;
+    }
+
+    @Override
+    public Comparator<? super K> getKeyComparator() {
+        checkState(!hasStage(Kind.TRANSFORM_KEY), "Entries are not known to be sorted");
+        return (Comparator) source.getKeyComparator();
+    }
+
+    public Entries<K, V> filterKeys(Predicate<? super K> filter) {
+        return append(Kind.FILTER_KEY, requireNonNull(filter), 0);
+    }
+
+    public Entries<K, V> filterValues(Predicate<? super V> filter) {
+        return append(Kind.FILTER_VALUE, requireNonNull(filter), 0);
+    }
+
+    public <T> Entries<T, V> transformKeys(Function<? super K, ? extends T> keyFun) {
+        return append(Kind.TRANSFORM_KEY, requireNonNull(keyFun), 0);
+    }
+
+    public <T> Entries<K, T> transformValues(Function<? super V, ? extends T> valueFun) {
+        return append(Kind.TRANSFORM_VALUE, requireNonNull(valueFun), 0);
+    }
+
+    public Entries<K, V> peek(BiConsumer<? super K, ? super V> action) {
+        return append(Kind.PEEK, requireNonNull(action), 0);
+    }
+
+    public Entries<K, V> limit(long maxSize) {
+        checkArgument(maxSize >= 0, () -> "Negative limit: " + maxSize);
+        return append(Kind.LIMIT, null, maxSize);
+    }
+
+    private boolean hasStage(Kind kind) {
+        for (Stage stage : stages) {
+            if (stage.kind == kind) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The appended pipeline continues where this one stopped: the limits already consumed stay consumed.
+     */
+    private FusedEntries append(Kind kind, Object fun, long limit) {
+        Stage[] appended = Arrays.copyOf(stages, stages.length + 1);
+        appended[stages.length] = new Stage(kind, fun, limit);
+        FusedEntries fused = new FusedEntries<>(source, appended);
+        System.arraycopy(remaining, 0, fused.remaining, 0, stages.length);
+        fused.exhausted |= exhausted;
+        return fused;
+    }
+
+    private enum Kind {
+        FILTER_KEY,
+        FILTER_VALUE,
+        TRANSFORM_KEY,
+        TRANSFORM_VALUE,
+        PEEK,
+        LIMIT
+    }
+
+    private static final class Stage {
+
+        private final Kind kind;
+        private final Object fun;
+        private final long limit;
+
+        private Stage(Kind kind, Object fun, long limit) {
+            this.kind = kind;
+            this.fun = fun;
+            this.limit = limit;
+        }
+    }
+
+}
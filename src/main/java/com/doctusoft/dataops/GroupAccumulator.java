@@ -0,0 +1,145 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+/**
+ * A GroupAccumulator reduces a run of values into a single result without collecting them. The same instance is
+ * reused for each group: {@link #start()} is called before the first value of every group and {@link #finish()}
+ * after its last one, so the memory used is independent of the size of the groups. Instances are stateful, always
+ * create a new one for each reduction.
+ */
+public abstract class GroupAccumulator<V, A> {
+
+    protected GroupAccumulator() {}
+
+    protected abstract void start();
+
+    protected abstract void accept(V value);
+
+    protected abstract A finish();
+
+    public static final <V, A> GroupAccumulator<V, A> folding(Supplier<? extends A> seedFactory,
+        BiFunction<? super A, ? super V, ? extends A> folderFun) {
+        requireNonNull(seedFactory, "seedFactory");
+        requireNonNull(folderFun, "folderFun");
+        return new GroupAccumulator<V, A>() {
+
+            private A accumulator;
+
+            protected void start() {
+                accumulator = seedFactory.get();
+            }
+
+            protected void accept(V value) {
+                accumulator = folderFun.apply(accumulator, value);
+            }
+
+            protected A finish() {
+                A result = accumulator;
+                accumulator = null;
+                return result;
+            }
+        };
+    }
+
+    public static final <V> GroupAccumulator<V, V> reducing(BinaryOperator<V> reducerFun) {
+        requireNonNull(reducerFun, "reducerFun");
+        return new GroupAccumulator<V, V>() {
+
+            private boolean empty;
+            private V accumulator;
+
+            protected void start() {
+                empty = true;
+                accumulator = null;
+            }
+
+            protected void accept(V value) {
+                accumulator = empty ? value : reducerFun.apply(accumulator, value);
+                empty = false;
+            }
+
+            protected V finish() {
+                V result = accumulator;
+                accumulator = null;
+                return result;
+            }
+        };
+    }
+
+    public static final <V> GroupAccumulator<V, V> minBy(Comparator<? super V> comparator) {
+        requireNonNull(comparator, "comparator");
+        return reducing((a, b) -> comparator.compare(b, a) < 0 ? b : a);
+    }
+
+    public static final <V> GroupAccumulator<V, V> maxBy(Comparator<? super V> comparator) {
+        requireNonNull(comparator, "comparator");
+        return reducing((a, b) -> comparator.compare(b, a) > 0 ? b : a);
+    }
+
+    public static final <V> GroupAccumulator<V, Long> counting() {
+        return reducingLong(0L, v -> 1L, Long::sum);
+    }
+
+    public static final <V> GroupAccumulator<V, Long> summingLong(ToLongFunction<? super V> mapperFun) {
+        return reducingLong(0L, mapperFun, Long::sum);
+    }
+
+    public static final <V> GroupAccumulator<V, Double> summingDouble(ToDoubleFunction<? super V> mapperFun) {
+        return reducingDouble(0d, mapperFun, Double::sum);
+    }
+
+    /**
+     * Accumulates a primitive {@code long} per group, boxing only the result of each group.
+     */
+    public static final <V> GroupAccumulator<V, Long> reducingLong(long identity, ToLongFunction<? super V> mapperFun,
+        LongBinaryOperator reducerFun) {
+        requireNonNull(mapperFun, "mapperFun");
+        requireNonNull(reducerFun, "reducerFun");
+        return new GroupAccumulator<V, Long>() {
+
+            private long accumulator;
+
+            protected void start() {
+                accumulator = identity;
+            }
+
+            protected void accept(V value) {
+                accumulator = reducerFun.applyAsLong(accumulator, mapperFun.applyAsLong(value));
+            }
+
+            protected Long finish() {
+                return accumulator;
+            }
+        };
+    }
+
+    /**
+     * Accumulates a primitive {@code double} per group, boxing only the result of each group.
+     */
+    public static final <V> GroupAccumulator<V, Double> reducingDouble(double identity,
+        ToDoubleFunction<? super V> mapperFun, DoubleBinaryOperator reducerFun) {
+        requireNonNull(mapperFun, "mapperFun");
+        requireNonNull(reducerFun, "reducerFun");
+        return new GroupAccumulator<V, Double>() {
+
+            private double accumulator;
+
+            protected void start() {
+                accumulator = identity;
+            }
+
+            protected void accept(V value) {
+                accumulator = reducerFun.applyAsDouble(accumulator, mapperFun.applyAsDouble(value));
+            }
+
+            protected Double finish() {
+                return accumulator;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+/**
+ * Reduces each run of adjacent entries with equal keys - detected the same way as by {@link EntryGroups} - with a
+ * {@link GroupAccumulator}, without materializing the groups.
+ */
+public final class GroupReduction<K, V, A> implements Entries<K, A> {
+    
+    private final Entries<K, V> entries;
+    private final GroupAccumulator<? super V, A> accumulator;
+    private final BiPredicate<K, K> keyEquality;
+    
+    private final BiConsumer<K, V> valueConsumer = this::acceptValue;
+    
+    private K actualKey;
+    
+    private K pendingKey;
+    private V pendingValue;
+    
+    public GroupReduction(Entries<K, V> entries, GroupAccumulator<? super V, A> accumulator) {
+        this(entries, accumulator, Objects::equals);
+    }
+    
+    public GroupReduction(Entries<K, V> entries, GroupAccumulator<? super V, A> accumulator,
+        BiPredicate<K, K> keyEquality) {
+        this.entries = requireNonNull(entries, "entries");
+        this.accumulator = requireNonNull(accumulator, "accumulator");
+        this.keyEquality = requireNonNull(keyEquality, "keyEquality");
+    }
+    
+    public boolean next(BiConsumer<K, A> action) {
+        requireNonNull(action);
+        if (pendingKey != null) {
+            K key = pendingKey;
+            V value = pendingValue;
+            pendingKey = null;
+            pendingValue = null;
+            acceptValue(key, value);
+        }
+        while (pendingKey == null && entries.next(valueConsumer)) {
+            // nothing more to do here
+        }
+        boolean result = actualKey != null;
+        if (result) {
+            K key = actualKey;
+            actualKey = null;
+            action.accept(key, accumulator.finish());
+        }
+        return result;
+    }
+    
+    @Override
+    public int characteristics() {
+        return entries.characteristics() & (Spliterator.ORDERED | Spliterator.SORTED);
+    }
+    
+    @Override
+    public Comparator<? super K> getKeyComparator() {
+        return entries.getKeyComparator();
+    }
+    
+    private void acceptValue(K key, V value) {
+        if (actualKey == null) {
+            actualKey = key;
+            accumulator.start();
+            accumulator.accept(value);
+        } else if (key == actualKey || keyEquality.test(key, actualKey)) {
+            accumulator.accept(value);
+        } else {
+            pendingKey = key;
+            pendingValue = value;
+        }
+    }
+    
+}
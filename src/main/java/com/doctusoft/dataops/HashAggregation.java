@@ -0,0 +1,94 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+/**
+ * Aggregates the values of unsorted entries per key in a single pass using an open-addressing hash table, without
+ * the need to sort the entries first. Aggregated keys are kept in their first-seen order. Instances are not
+ * thread-safe: to aggregate on several threads build a partial aggregation per thread and {@link #merge} them.
+ *
+ * @param <K> the key type
+ * @param <V> the value type of the aggregated entries
+ * @param <A> the concrete aggregation type
+ * @see Entries#aggregateByKey(HashAggregation)
+ * @see Entries#aggregateByKeyInParallel(Supplier)
+ */
+public abstract class HashAggregation<K, V, A extends HashAggregation<K, V, A>> implements BiConsumer<K, V> {
+
+    final OpenHashIndex<K> index = new OpenHashIndex<>(0);
+
+    HashAggregation() {}
+
+    /**
+     * @return the number of distinct keys aggregated
+     */
+    public final int size() {
+        return index.size();
+    }
+
+    public final boolean containsKey(K key) {
+        return index.indexOf(key) >= 0;
+    }
+
+    /**
+     * Aggregates a single entry.
+     */
+    public abstract void accept(K key, V value);
+
+    /**
+     * Merges the partial aggregates of an {@code other} aggregation - created the same way - into this one.
+     *
+     * @return {@code this} aggregation
+     */
+    public abstract A merge(A other);
+
+    /**
+     * @return the aggregated values per key in first-seen key order
+     */
+    public abstract Entries<K, ?> toEntries();
+
+    static <K, V, A extends HashAggregation<K, V, A>> A aggregateInParallel(Entries<K, V> entries,
+        Supplier<? extends A> aggregationFactory) {
+        requireNonNull(entries, "entries");
+        requireNonNull(aggregationFactory, "aggregationFactory");
+        long size = EntriesSpliterator.estimateSize(entries);
+        long leafSize = Math.max(1L, size / (ForkJoinPool.getCommonPoolParallelism() << 2));
+        return ForkJoinPool.commonPool().invoke(new AggregationTask<>(entries, aggregationFactory, leafSize));
+    }
+
+    private static final class AggregationTask<K, V, A extends HashAggregation<K, V, A>> extends RecursiveTask<A> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Entries<K, V> entries;
+        private final Supplier<? extends A> aggregationFactory;
+        private final long leafSize;
+
+        private AggregationTask(Entries<K, V> entries, Supplier<? extends A> aggregationFactory, long leafSize) {
+            this.entries = entries;
+            this.aggregationFactory = aggregationFactory;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected A compute() {
+            if (EntriesSpliterator.estimateSize(entries) > leafSize) {
+                SplittableEntries<K, V> prefix = EntriesSpliterator.trySplit(entries);
+                if (prefix != null) {
+                    AggregationTask<K, V, A> prefixTask = new AggregationTask<>(prefix, aggregationFactory, leafSize);
+                    prefixTask.fork();
+                    A suffixAggregation = compute();
+                    return prefixTask.join().merge(suffixAggregation);
+                }
+            }
+            A aggregation = requireNonNull(aggregationFactory.get(), "aggregation");
+            entries.forEach(aggregation);
+            return aggregation;
+        }
+    }
+
+}
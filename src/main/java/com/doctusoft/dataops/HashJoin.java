@@ -0,0 +1,332 @@
+package com.doctusoft.dataops;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.*;
+
+import static com.doctusoft.java.Failsafe.checkArgument;
+import static java.util.Objects.*;
+
+/**
+ * Joins unsorted {@link Entries} by key equality: a hash table is built from the smaller side - the right side
+ * unless both sides know their sizes - and the other side is streamed through it. Keys may repeat on both sides,
+ * every matching pair of entries is delivered to the {@link JoinConsumer}.
+ * <p>
+ * If spilling is enabled and the build side exceeds the in-memory limit, both sides are partitioned by key hash into
+ * temporary files and joined partition by partition (grace hash join). In that case the entries are delivered
+ * grouped by partition instead of in the order of the probe side.
+ * </p>
+ * <p>
+ * HashJoin instances are immutable, the {@code with...} methods return new instances.
+ * </p>
+ *
+ * @param <K> the key type
+ * @param <L> the value type of the left side
+ * @param <R> the value type of the right side
+ */
+public final class HashJoin<K, L, R> {
+
+    /**
+     * Delivers only the keys present on both sides.
+     */
+    public static <K, L, R> HashJoin<K, L, R> inner() {
+        return new HashJoin<>(false, false, null, null, null, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Delivers all entries of the left side, with a {@code null} right value where the key is missing on the right.
+     */
+    public static <K, L, R> HashJoin<K, L, R> leftOuter() {
+        return new HashJoin<>(true, false, null, null, null, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Delivers all entries of both sides, like {@link JoinOperator#join} does for sorted entries.
+     */
+    public static <K, L, R> HashJoin<K, L, R> fullOuter() {
+        return new HashJoin<>(true, true, null, null, null, Integer.MAX_VALUE, null);
+    }
+
+    private static final int PARTITION_BITS = 6;
+    private static final int PARTITIONS = 1 << PARTITION_BITS;
+
+    private final boolean leftOuter;
+    private final boolean rightOuter;
+    private final Serializer<K> keySerializer;
+    private final Serializer<L> leftSerializer;
+    private final Serializer<R> rightSerializer;
+    private final int maxEntriesInMemory;
+    private final Path tempDirectory;
+
+    private HashJoin(boolean leftOuter, boolean rightOuter, Serializer<K> keySerializer,
+        Serializer<L> leftSerializer, Serializer<R> rightSerializer, int maxEntriesInMemory, Path tempDirectory) {
+        this.leftOuter = leftOuter;
+        this.rightOuter = rightOuter;
+        this.keySerializer = keySerializer;
+        this.leftSerializer = leftSerializer;
+        this.rightSerializer = rightSerializer;
+        this.maxEntriesInMemory = maxEntriesInMemory;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Enables spilling to temporary files once the build side has more than {@code maxEntriesInMemory} entries.
+     * Partitions are loaded whole, so a single partition may exceed the limit with heavily skewed keys.
+     */
+    public HashJoin<K, L, R> withSpilling(Serializer<K> keySerializer, Serializer<L> leftSerializer,
+        Serializer<R> rightSerializer, int maxEntriesInMemory) {
+        requireNonNull(keySerializer, "keySerializer");
+        requireNonNull(leftSerializer, "leftSerializer");
+        requireNonNull(rightSerializer, "rightSerializer");
+        checkArgument(maxEntriesInMemory > 0, () -> "Invalid maxEntriesInMemory: " + maxEntriesInMemory);
+        return new HashJoin<>(leftOuter, rightOuter, keySerializer, leftSerializer, rightSerializer,
+            maxEntriesInMemory, tempDirectory);
+    }
+
+    /**
+     * Sets the directory of the temporary partition files, defaults to {@code java.io.tmpdir}.
+     */
+    public HashJoin<K, L, R> withTempDirectory(Path tempDirectory) {
+        requireNonNull(tempDirectory, "tempDirectory");
+        return new HashJoin<>(leftOuter, rightOuter, keySerializer, leftSerializer, rightSerializer,
+            maxEntriesInMemory, tempDirectory);
+    }
+
+    /**
+     * @throws UncheckedIOException if spilling the partitions fails
+     */
+    public void join(Entries<K, L> leftEntries, Entries<K, R> rightEntries, JoinConsumer<L, R, K> consumer) {
+        requireNonNull(leftEntries, "leftEntries");
+        requireNonNull(rightEntries, "rightEntries");
+        requireNonNull(consumer, "consumer");
+        if (isKnownToBeSmaller(leftEntries, rightEntries)) {
+            new Execution<>(leftEntries, leftSerializer, leftOuter, rightEntries, rightSerializer, rightOuter,
+                consumer).run();
+        } else {
+            new Execution<R, L>(rightEntries, rightSerializer, rightOuter, leftEntries, leftSerializer, leftOuter,
+                (right, left, key) -> consumer.accept(left, right, key)).run();
+        }
+    }
+
+    private static boolean isKnownToBeSmaller(Entries<?, ?> entries, Entries<?, ?> other) {
+        return entries.hasCharacteristics(Spliterator.SIZED) && other.hasCharacteristics(Spliterator.SIZED)
+            && EntriesSpliterator.estimateSize(entries) < EntriesSpliterator.estimateSize(other);
+    }
+
+    private static int partition(Object key) {
+        return (key.hashCode() * 0x85EBCA6B) >>> (Integer.SIZE - PARTITION_BITS);
+    }
+
+    private final class Execution<B, P> implements BiConsumer<K, B> {
+
+        private final Entries<K, B> buildEntries;
+        private final Serializer<B> buildSerializer;
+        private final boolean buildOuter;
+        private final Entries<K, P> probeEntries;
+        private final Serializer<P> probeSerializer;
+        private final boolean probeOuter;
+        private final JoinConsumer<B, P, K> consumer;
+        private BuildTable<K, B> table = new BuildTable<>();
+        private PartitionFiles buildFiles;
+        private PartitionFiles probeFiles;
+
+        private Execution(Entries<K, B> buildEntries, Serializer<B> buildSerializer, boolean buildOuter,
+            Entries<K, P> probeEntries, Serializer<P> probeSerializer, boolean probeOuter,
+            JoinConsumer<B, P, K> consumer) {
+            this.buildEntries = buildEntries;
+            this.buildSerializer = buildSerializer;
+            this.buildOuter = buildOuter;
+            this.probeEntries = probeEntries;
+            this.probeSerializer = probeSerializer;
+            this.probeOuter = probeOuter;
+            this.consumer = consumer;
+        }
+
+        private void run() {
+            try {
+                buildEntries.forEach(this);
+                if (buildFiles == null) {
+                    probeEntries.forEach(this::probe);
+                    emitUnmatched();
+                    return;
+                }
+                buildFiles.close();
+                probeFiles = new PartitionFiles();
+                probeEntries.forEach((key, value) -> probeFiles.write(key, value, probeSerializer));
+                probeFiles.close();
+                for (int partition = 0; partition < PARTITIONS; ++partition) {
+                    table = new BuildTable<>();
+                    buildFiles.read(partition, buildSerializer, table);
+                    probeFiles.read(partition, probeSerializer, this::probe);
+                    emitUnmatched();
+                    buildFiles.delete(partition);
+                    probeFiles.delete(partition);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                if (buildFiles != null) {
+                    buildFiles.deleteAll();
+                }
+                if (probeFiles != null) {
+                    probeFiles.deleteAll();
+                }
+            }
+        }
+
+        public void accept(K key, B value) {
+            if (buildFiles != null) {
+                buildFiles.write(key, value, buildSerializer);
+                return;
+            }
+            table.accept(key, value);
+            if (table.size > maxEntriesInMemory && keySerializer != null) {
+                buildFiles = new PartitionFiles();
+                table.forEach(true, (k, v) -> buildFiles.write(k, v, buildSerializer));
+                table = null;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void probe(K key, P value) {
+            int keyIndex = table.index.indexOf(key);
+            if (keyIndex < 0) {
+                if (probeOuter) {
+                    consumer.accept(null, value, key);
+                }
+                return;
+            }
+            table.matched[keyIndex] = true;
+            for (int entry = table.firstEntries[keyIndex]; entry >= 0; entry = table.nextEntries[entry]) {
+                consumer.accept((B) table.values[entry], value, key);
+            }
+        }
+
+        private void emitUnmatched() {
+            if (buildOuter) {
+                table.forEach(false, (key, value) -> consumer.accept(value, null, key));
+            }
+        }
+    }
+
+    /**
+     * The entries of the build side: distinct keys are indexed by an {@link OpenHashIndex}, the entries of a key are
+     * chained in insertion order.
+     */
+    private static final class BuildTable<K, V> implements BiConsumer<K, V> {
+
+        private final OpenHashIndex<K> index = new OpenHashIndex<>(0);
+        private int[] firstEntries = new int[0];
+        private int[] lastEntries = new int[0];
+        private boolean[] matched = new boolean[0];
+        private Object[] values = new Object[16];
+        private int[] nextEntries = new int[16];
+        private int size;
+
+        public void accept(K key, V value) {
+            int keyIndex = index.add(key);
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+                nextEntries = Arrays.copyOf(nextEntries, size << 1);
+            }
+            int entry = size++;
+            values[entry] = value;
+            nextEntries[entry] = -1;
+            if (keyIndex < 0) {
+                keyIndex = ~keyIndex;
+                if (firstEntries.length < index.columnCapacity()) {
+                    firstEntries = Arrays.copyOf(firstEntries, index.columnCapacity());
+                    lastEntries = Arrays.copyOf(lastEntries, index.columnCapacity());
+                    matched = Arrays.copyOf(matched, index.columnCapacity());
+                }
+                firstEntries[keyIndex] = entry;
+            } else {
+                nextEntries[lastEntries[keyIndex]] = entry;
+            }
+            lastEntries[keyIndex] = entry;
+        }
+
+        /**
+         * Iterates the entries grouped by key, in first-seen key order.
+         */
+        @SuppressWarnings("unchecked")
+        private void forEach(boolean includeMatched, BiConsumer<K, V> action) {
+            for (int keyIndex = 0; keyIndex < index.size(); ++keyIndex) {
+                if (includeMatched || !matched[keyIndex]) {
+                    K key = index.keyAt(keyIndex);
+                    for (int entry = firstEntries[keyIndex]; entry >= 0; entry = nextEntries[entry]) {
+                        action.accept(key, (V) values[entry]);
+                    }
+                }
+            }
+        }
+    }
+
+    private final class PartitionFiles {
+
+        private final Path[] files = new Path[PARTITIONS];
+        private final DataOutputStream[] outputs = new DataOutputStream[PARTITIONS];
+        private final int[] sizes = new int[PARTITIONS];
+
+        private <V> void write(K key, V value, Serializer<V> valueSerializer) {
+            int partition = partition(requireNonNull(key, "key"));
+            try {
+                if (outputs[partition] == null) {
+                    files[partition] = tempDirectory == null
+                        ? Files.createTempFile("hash-join-", ".tmp")
+                        : Files.createTempFile(tempDirectory, "hash-join-", ".tmp");
+                    outputs[partition] = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(files[partition])));
+                }
+                keySerializer.write(key, outputs[partition]);
+                valueSerializer.write(value, outputs[partition]);
+                ++sizes[partition];
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void close() throws IOException {
+            for (DataOutputStream output : outputs) {
+                if (output != null) {
+                    output.close();
+                }
+            }
+        }
+
+        private <V> void read(int partition, Serializer<V> valueSerializer, BiConsumer<K, V> action)
+            throws IOException {
+            if (files[partition] == null) {
+                return;
+            }
+            try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(files[partition])))) {
+                for (int i = 0; i < sizes[partition]; ++i) {
+                    action.accept(keySerializer.read(input), valueSerializer.read(input));
+                }
+            }
+        }
+
+        private void delete(int partition) throws IOException {
+            if (files[partition] != null) {
+                Files.deleteIfExists(files[partition]);
+                files[partition] = null;
+            }
+        }
+
+        private void deleteAll() {
+            for (int partition = 0; partition < PARTITIONS; ++partition) {
+                try {
+                    if (outputs[partition] != null) {
+                        outputs[partition].close();
+                    }
+                    delete(partition);
+                } catch (IOException e) {
+                    // the original failure is more relevant
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.doctusoft.dataops;
+
+/**
+ * Receives matched index pairs in bulk: the first {@code count} elements of the two arrays are the indexes of the
+ * joined elements of the left and the right side, {@code -1} marking a missing side. The arrays are reused between
+ * calls.
+ */
+@FunctionalInterface
+public interface IndexPairConsumer {
+
+    void accept(int[] leftIndexes, int[] rightIndexes, int count);
+
+}
@@ -0,0 +1,12 @@
+package com.doctusoft.dataops;
+
+/**
+ * Primitive {@code int} key specialization of a {@link java.util.function.BiConsumer} to consume
+ * {@link IntKeyEntries} without boxing the keys.
+ */
+@FunctionalInterface
+public interface IntKeyConsumer<V> {
+
+    void accept(int key, V value);
+
+}
@@ -0,0 +1,98 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+import static java.util.Objects.*;
+
+/**
+ * Primitive {@code int} key specialization of {@link Entries}: keys are never boxed while the entries are iterated,
+ * filtered, transformed or grouped.
+ */
+public interface IntKeyEntries<V> {
+
+    boolean next(IntKeyConsumer<V> action);
+
+    static <V> IntKeyEntries<V> indexedArrayElements(V[] elements) {
+        return new IntKeyEntriesForArrays<>(null, elements);
+    }
+
+    static <V> IntKeyEntries<V> forColumns(int[] keys, V[] values) {
+        return new IntKeyEntriesForArrays<>(requireNonNull(keys, "keys"), values);
+    }
+
+    /**
+     * Extracts the keys of the {@code values} - in parallel, so {@code mapperFun} must be thread-safe - and sorts
+     * them with a stable parallel radix sort. The list is reordered in place as well.
+     */
+    @SuppressWarnings("unchecked")
+    static <V> IntKeyEntries<V> parallelSortAndIndex(List<V> values, ToIntFunction<? super V> mapperFun) {
+        requireNonNull(mapperFun);
+        Object[] valueColumn = values.toArray();
+        int[] keyColumn = new int[valueColumn.length];
+        IntStream.range(0, valueColumn.length).parallel()
+            .forEach(i -> keyColumn[i] = mapperFun.applyAsInt((V) valueColumn[i]));
+        int[] order = RadixSort.sort(keyColumn);
+        V[] sortedValues = (V[]) new Object[valueColumn.length];
+        ListIterator<V> iterator = values.listIterator();
+        for (int i = 0; i < order.length; ++i) {
+            sortedValues[i] = (V) valueColumn[order[i]];
+            iterator.next();
+            iterator.set(sortedValues[i]);
+        }
+        return new IntKeyEntriesForArrays<>(keyColumn, sortedValues);
+    }
+
+    static <V> IntKeyEntries<V> indexValues(Iterable<V> values, ToIntFunction<? super V> mapperFun) {
+        return new IntKeyEntriesForValues<>(values.iterator(), mapperFun);
+    }
+
+    static <V> IntKeyEntries<V> indexValueIterator(Iterator<V> iterator, ToIntFunction<? super V> mapperFun) {
+        return new IntKeyEntriesForValues<>(iterator, mapperFun);
+    }
+
+    default void forEach(IntKeyConsumer<V> action) {
+        while (next(action)) {
+            // nothing more to do here
+        }
+    }
+
+    default IntKeyEntries<V> filterKeys(IntPredicate filter) {
+        requireNonNull(filter);
+        return new FilteredIntKeyEntries<>(this, filter, Always.alwaysTrue());
+    }
+
+    default IntKeyEntries<V> filterValues(Predicate<? super V> filter) {
+        requireNonNull(filter);
+        return new FilteredIntKeyEntries<>(this, FilteredIntKeyEntries.ALWAYS_TRUE, filter);
+    }
+
+    default IntKeyEntries<V> transformKeys(IntUnaryOperator keyFun) {
+        requireNonNull(keyFun);
+        return new TransformedIntKeyEntries<>(this, keyFun, Function.identity());
+    }
+
+    default <T> IntKeyEntries<T> transformValues(Function<? super V, ? extends T> valueFun) {
+        requireNonNull(valueFun);
+        return new TransformedIntKeyEntries<>(this, TransformedIntKeyEntries.IDENTITY, valueFun);
+    }
+
+    default <T> Entries<T, V> boxKeys(IntFunction<? extends T> keyFun) {
+        requireNonNull(keyFun);
+        return new EntriesForIntKeys<>(this, keyFun);
+    }
+
+    default Entries<Integer, V> boxed() {
+        return boxKeys(Integer::valueOf);
+    }
+
+    default IntKeyEntries<ArrayList<V>> intoGroups() {
+        return new IntKeyEntryGroups<>(this, ArrayList::new);
+    }
+
+    default <G extends Collection<V>> IntKeyEntries<G> intoGroups(Supplier<? extends G> groupFactory) {
+        return new IntKeyEntryGroups<>(this, groupFactory);
+    }
+
+}
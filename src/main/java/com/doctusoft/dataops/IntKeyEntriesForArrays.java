@@ -0,0 +1,41 @@
+package com.doctusoft.dataops;
+
+import static com.doctusoft.java.Failsafe.checkArgument;
+import static java.util.Objects.*;
+
+final class IntKeyEntriesForArrays<V> implements IntKeyEntries<V> {
+
+    private final int[] keys;
+    private final V[] values;
+    private final int ln;
+    private int i;
+
+    /**
+     * @param keys   the key column or {@code null} to use the array indexes as keys
+     * @param values the value column
+     */
+    IntKeyEntriesForArrays(int[] keys, V[] values) {
+        this.values = requireNonNull(values, "values");
+        this.keys = keys;
+        checkArgument(keys == null || keys.length == values.length, "Key and value columns differ in length");
+        this.ln = values.length;
+    }
+
+    public boolean next(IntKeyConsumer<V> action) {
+        if (i < ln) {
+            action.accept(keys == null ? i : keys[i], values[i]);
+            ++i;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEach(IntKeyConsumer<V> action) {
+        requireNonNull(action);
+        for (; i < ln; ++i) {
+            action.accept(keys == null ? i : keys[i], values[i]);
+        }
+    }
+
+}
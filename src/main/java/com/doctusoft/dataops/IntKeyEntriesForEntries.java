@@ -0,0 +1,28 @@
+package com.doctusoft.dataops;
+
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+final class IntKeyEntriesForEntries<K, V> implements IntKeyEntries<V>, BiConsumer<K, V> {
+
+    private final Entries<K, V> entries;
+    private final ToIntFunction<? super K> keyFun;
+
+    private IntKeyConsumer<V> action;
+
+    IntKeyEntriesForEntries(Entries<K, V> entries, ToIntFunction<? super K> keyFun) {
+        this.entries = requireNonNull(entries, "entries");
+        this.keyFun = requireNonNull(keyFun, "keyFun");
+    }
+
+    public boolean next(IntKeyConsumer<V> action) {
+        this.action = requireNonNull(action);
+        return entries.next(this);
+    }
+
+    public void accept(K key, V value) {
+        action.accept(keyFun.applyAsInt(key), value);
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+final class IntKeyEntriesForValues<V> implements IntKeyEntries<V> {
+
+    private final Iterator<V> valueIterator;
+    private final ToIntFunction<? super V> mapperFun;
+
+    IntKeyEntriesForValues(Iterator<V> valueIterator, ToIntFunction<? super V> mapperFun) {
+        this.valueIterator = requireNonNull(valueIterator);
+        this.mapperFun = requireNonNull(mapperFun);
+    }
+
+    public boolean next(IntKeyConsumer<V> consumer) {
+        if (valueIterator.hasNext()) {
+            V value = valueIterator.next();
+            consumer.accept(mapperFun.applyAsInt(value), value);
+            return true;
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.doctusoft.dataops;
+
+import com.doctusoft.java.Failsafe;
+import com.doctusoft.math.LeftClosedRange;
+
+import java.util.*;
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+/**
+ * Joins point keyed {@link Entries} to {@link LeftClosedRange} keyed {@link Entries} by containment in a single sweep:
+ * the points have to be sorted, the intervals sorted by their lower bound. Intervals are activated when the sweep
+ * reaches their lower bound and kept in a min-heap by upper bound, so expired intervals are dropped in
+ * {@code O(log m)} each and the whole join costs {@code O((n + m) log m + output)}.
+ */
+public final class IntervalJoin {
+
+    private IntervalJoin() {
+        throw Failsafe.staticClassInstantiated();
+    }
+
+    /**
+     * Delivers every point entry with every interval entry containing its key and the containing interval, the
+     * intervals of a point in no particular order. Points outside all intervals are not delivered.
+     *
+     * @throws IllegalArgumentException if the points or the lower bounds of the intervals are not sorted
+     */
+    public static <C extends Comparable<? super C>, L, R> void join(Entries<C, L> pointEntries,
+        Entries<LeftClosedRange<C>, R> intervalEntries, IntervalJoinConsumer<L, R, C> consumer) {
+        requireNonNull(pointEntries, "pointEntries");
+        requireNonNull(consumer, "consumer");
+        new Sweep<>(requireNonNull(intervalEntries, "intervalEntries"), consumer).run(pointEntries);
+    }
+
+    private static final class Sweep<C extends Comparable<? super C>, L, R> implements BiConsumer<C, L> {
+
+        private final Entries<LeftClosedRange<C>, R> intervalEntries;
+        private final IntervalJoinConsumer<L, R, C> consumer;
+        private final LookbackFilter<C> pointOrderValidator = LookbackFilter.monotone();
+        private final LookbackFilter<C> intervalOrderValidator = LookbackFilter.monotone();
+        private LeftClosedRange<C> nextInterval;
+        private R nextValue;
+        private Object[] heapIntervals = new Object[16];
+        private Object[] heapValues = new Object[16];
+        private int heapSize;
+
+        private Sweep(Entries<LeftClosedRange<C>, R> intervalEntries, IntervalJoinConsumer<L, R, C> consumer) {
+            this.intervalEntries = intervalEntries;
+            this.consumer = consumer;
+        }
+
+        private void run(Entries<C, L> pointEntries) {
+            forwardInterval();
+            while (pointEntries.next(this)) {
+                if (heapSize == 0 && nextInterval == null) {
+                    return;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        public void accept(C point, L value) {
+            if (!pointOrderValidator.test(requireNonNull(point, "point"))) {
+                throw new IllegalArgumentException(
+                    "Points are not sorted: " + pointOrderValidator.getLastAccepted() + ", " + point);
+            }
+            while (nextInterval != null && nextInterval.getLowerBound().compareTo(point) <= 0) {
+                push(nextInterval, nextValue);
+                forwardInterval();
+            }
+            while (heapSize > 0 && upperBound(0).compareTo(point) <= 0) {
+                pop();
+            }
+            for (int i = 0; i < heapSize; ++i) {
+                consumer.accept(value, (LeftClosedRange<C>) heapIntervals[i], (R) heapValues[i], point);
+            }
+        }
+
+        private void forwardInterval() {
+            if (!intervalEntries.next(this::acceptInterval)) {
+                nextInterval = null;
+                nextValue = null;
+            }
+        }
+
+        private void acceptInterval(LeftClosedRange<C> interval, R value) {
+            C lowerBound = requireNonNull(interval, "interval").getLowerBound();
+            if (!intervalOrderValidator.test(lowerBound)) {
+                throw new IllegalArgumentException("Intervals are not sorted by lower bound: "
+                    + intervalOrderValidator.getLastAccepted() + ", " + lowerBound);
+            }
+            nextInterval = interval;
+            nextValue = value;
+        }
+
+        @SuppressWarnings("unchecked")
+        private C upperBound(int i) {
+            return ((LeftClosedRange<C>) heapIntervals[i]).getUpperBound();
+        }
+
+        private void push(LeftClosedRange<C> interval, R value) {
+            if (heapSize == heapIntervals.length) {
+                heapIntervals = Arrays.copyOf(heapIntervals, heapSize << 1);
+                heapValues = Arrays.copyOf(heapValues, heapSize << 1);
+            }
+            int i = heapSize++;
+            C upperBound = interval.getUpperBound();
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (upperBound(parent).compareTo(upperBound) <= 0) {
+                    break;
+                }
+                move(parent, i);
+                i = parent;
+            }
+            heapIntervals[i] = interval;
+            heapValues[i] = value;
+        }
+
+        private void pop() {
+            int last = --heapSize;
+            Object interval = heapIntervals[last];
+            Object value = heapValues[last];
+            heapIntervals[last] = null;
+            heapValues[last] = null;
+            if (last == 0) {
+                return;
+            }
+            @SuppressWarnings("unchecked")
+            C upperBound = ((LeftClosedRange<C>) interval).getUpperBound();
+            int i = 0;
+            for (int child = 1; child < last; child = (i << 1) + 1) {
+                if (child + 1 < last && upperBound(child + 1).compareTo(upperBound(child)) < 0) {
+                    ++child;
+                }
+                if (upperBound.compareTo(upperBound(child)) <= 0) {
+                    break;
+                }
+                move(child, i);
+                i = child;
+            }
+            heapIntervals[i] = interval;
+            heapValues[i] = value;
+        }
+
+        private void move(int from, int to) {
+            heapIntervals[to] = heapIntervals[from];
+            heapValues[to] = heapValues[from];
+        }
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.doctusoft.dataops;
+
+import com.doctusoft.math.LeftClosedRange;
+
+/**
+ * Receives the matches of an {@link IntervalJoin}: a point entry, an interval entry containing its key, and the key.
+ */
+@FunctionalInterface
+public interface IntervalJoinConsumer<L, R, C extends Comparable<? super C>> {
+
+    void accept(L left, LeftClosedRange<C> interval, R right, C point);
+
+}
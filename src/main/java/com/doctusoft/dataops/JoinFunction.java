@@ -0,0 +1,8 @@
+package com.doctusoft.dataops;
+
+@FunctionalInterface
+public interface JoinFunction<L, R, K, T> {
+
+    T apply(L left, R right, K key);
+
+}
@@ -1,6 +1,7 @@
 package com.doctusoft.dataops;
 
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.function.*;
 
 import static java.util.Objects.*;
@@ -45,14 +46,172 @@ public final class JoinOperator<K> {
         }
     }
     
+    /**
+     * Delivers only the keys present on both sides. Whenever one side is behind the other, it skips ahead using
+     * {@link SeekableEntries#seek} if it is seekable, so joining a sparse side with a dense seekable side costs
+     * {@code O(k log n)} instead of {@code O(n)}.
+     */
+    public <L, R> void innerJoin(Entries<K, L> leftEntries, Entries<K, R> rightEntries,
+        JoinConsumer<L, R, K> consumer) {
+        requireNonNull(consumer);
+        Side<L> left = new Side<>(leftEntries);
+        Side<R> right = new Side<>(rightEntries);
+        while (left.hasNext() && right.hasNext()) {
+            int c = keyOrder.compare(left.nextKey, right.nextKey);
+            if (c < 0) {
+                left.skipTo(right.nextKey);
+            } else if (c > 0) {
+                right.skipTo(left.nextKey);
+            } else {
+                K actualKey = left.nextKey;
+                left.forward();
+                right.forward();
+                consumer.accept(left.actualValue, right.actualValue, actualKey);
+                left.actualValue = null;
+                right.actualValue = null;
+            }
+        }
+    }
+
+    /**
+     * Lazily filters the {@code leftEntries} to the keys present in {@code rightEntries}, skipping ahead on both
+     * sides the same way as {@link #innerJoin}.
+     */
+    public <L> Entries<K, L> semiJoin(Entries<K, L> leftEntries, Entries<K, ?> rightEntries) {
+        return new SemiJoinedEntries<>(requireNonNull(leftEntries), requireNonNull(rightEntries));
+    }
+
+    /**
+     * Lazy variant of {@link #join}: both sides are advanced only when the next entry of the result is requested,
+     * so the result can be fed into further joins, filters or groupings without being buffered.
+     */
+    public <L, R, T> Entries<K, T> joined(Entries<K, L> leftEntries, Entries<K, R> rightEntries,
+        JoinFunction<? super L, ? super R, ? super K, ? extends T> combiner) {
+        return new JoinedEntries<>(requireNonNull(leftEntries), requireNonNull(rightEntries), requireNonNull(combiner));
+    }
+
+    /**
+     * Joins any number of sorted entries in a single pass, advancing them with a loser tree. For each key the
+     * {@code consumer} receives a row holding the value of every source at the index of the source, or {@code null}
+     * where the key is missing. The row array is reused between calls, it has to be copied to be retained.
+     */
+    public void joinAll(List<? extends Entries<K, ?>> entries, BiConsumer<? super K, Object[]> consumer) {
+        requireNonNull(consumer);
+        int k = entries.size();
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Side<Object>[] sides = new Side[k];
+        for (int i = 0; i < k; ++i) {
+            @SuppressWarnings("unchecked")
+            Entries<K, Object> source = (Entries<K, Object>) entries.get(i);
+            sides[i] = new Side<>(source);
+        }
+        int[] tree = new int[k];
+        Arrays.fill(tree, -1);
+        for (int i = k - 1; i >= 0; --i) {
+            adjust(sides, tree, i);
+        }
+        Object[] row = new Object[k];
+        while (k > 0 && sides[tree[0]].hasNext()) {
+            K key = sides[tree[0]].nextKey;
+            do {
+                int winner = tree[0];
+                sides[winner].forward();
+                row[winner] = sides[winner].actualValue;
+                sides[winner].actualValue = null;
+                adjust(sides, tree, winner);
+            } while (sides[tree[0]].hasNext() && keyEquals(sides[tree[0]].nextKey, key));
+            consumer.accept(key, row);
+            Arrays.fill(row, null);
+        }
+    }
+
+    /**
+     * Equivalent to {@code asOfJoin(leftEntries, rightEntries, AsOfDirection.BACKWARD, (l, r) -> true, consumer)}.
+     */
+    public <L, R> void asOfJoin(Entries<K, L> leftEntries, Entries<K, R> rightEntries,
+        JoinConsumer<L, R, K> consumer) {
+        asOfJoin(leftEntries, rightEntries, AsOfDirection.BACKWARD, (leftKey, rightKey) -> true, consumer);
+    }
+
+    /**
+     * Delivers every left entry with the value of the nearest right entry in the given {@code direction}, in a single
+     * merge pass over both sorted sides. The right value is {@code null} if there is no such entry or if
+     * {@code maxLag} rejects the pair of the left key and the matched right key. The {@code consumer} receives the left
+     * key, a right entry may be matched to any number of left entries. The left keys only have to be sorted, they may
+     * repeat, the right keys have to be strictly monotone.
+     */
+    public <L, R> void asOfJoin(Entries<K, L> leftEntries, Entries<K, R> rightEntries, AsOfDirection direction,
+        BiPredicate<? super K, ? super K> maxLag, JoinConsumer<L, R, K> consumer) {
+        requireNonNull(direction);
+        requireNonNull(maxLag);
+        requireNonNull(consumer);
+        Side<L> left = new Side<>(leftEntries, entries -> isKnownSorted(entries)
+            ? null
+            : LookbackFilter.monotone(keyOrder));
+        Side<R> right = new Side<>(rightEntries);
+        K matchedKey = null;
+        R matchedValue = null;
+        while (left.hasNext()) {
+            K leftKey = left.nextKey;
+            left.forward();
+            if (direction == AsOfDirection.BACKWARD) {
+                while (right.hasNext() && keyOrder.compare(right.nextKey, leftKey) <= 0) {
+                    matchedKey = right.nextKey;
+                    right.forward();
+                    matchedValue = right.actualValue;
+                }
+            } else {
+                while (right.hasNext() && keyOrder.compare(right.nextKey, leftKey) < 0) {
+                    right.forward();
+                }
+                matchedKey = right.nextKey;
+                matchedValue = right.nextValue;
+            }
+            boolean matches = matchedKey != null && maxLag.test(leftKey, matchedKey);
+            consumer.accept(left.actualValue, matches ? matchedValue : null, leftKey);
+            left.actualValue = null;
+        }
+    }
+
+    /**
+     * Parallel variant of {@link #join} for random access sources: {@code left} and {@code right} have to be sorted
+     * by their strictly monotone keys. The key space is cut into disjoint partitions at keys found by binary search
+     * on both sides, the partitions are merged on the common {@link ForkJoinPool}, so the {@code consumer} has to be
+     * thread-safe. Within a partition the entries are delivered in key order.
+     */
+    public <L, R> void parallelJoin(List<L> left, Function<? super L, ? extends K> leftKeyFun,
+        List<R> right, Function<? super R, ? extends K> rightKeyFun, JoinConsumer<L, R, K> consumer) {
+        requireNonNull(consumer);
+        parallelJoinPartitions(left, leftKeyFun, right, rightKeyFun, () -> consumer);
+    }
+
+    /**
+     * Same as {@link #parallelJoin} but every partition is delivered to its own consumer, created by the
+     * {@code partitionConsumerFactory}.
+     *
+     * @return the partition consumers in key order
+     */
+    public <L, R, C extends JoinConsumer<L, R, K>> List<C> parallelJoinPartitions(List<L> left,
+        Function<? super L, ? extends K> leftKeyFun, List<R> right, Function<? super R, ? extends K> rightKeyFun,
+        Supplier<? extends C> partitionConsumerFactory) {
+        PartitionedJoin<L, R, C> join = new PartitionedJoin<>(requireNonNull(left), requireNonNull(leftKeyFun),
+            requireNonNull(right), requireNonNull(rightKeyFun), requireNonNull(partitionConsumerFactory));
+        long size = (long) left.size() + right.size();
+        long partitionSize = Math.max(MIN_PARTITION_SIZE, size / (ForkJoinPool.getCommonPoolParallelism() << 3));
+        if (size <= partitionSize) {
+            return join.merge(0, left.size(), 0, right.size());
+        }
+        return ForkJoinPool.commonPool().invoke(join.new Partition(0, left.size(), 0, right.size(), partitionSize));
+    }
+
     public <L, G extends Collection<L>, R> void joinGroupLeft(Entries<K, L> leftEntries,
         Supplier<? extends G> leftCollectionSupplier, Entries<K, R> rightEntries, JoinConsumer<G, R, K> consumer) {
-        join(new EntryGroups<>(leftEntries, leftCollectionSupplier, this::keyEquals), rightEntries, consumer);
+        join(EntryGroups.byKeyOrder(leftEntries, leftCollectionSupplier, keyOrder), rightEntries, consumer);
     }
     
     public <L, R, G extends Collection<R>> void joinGroupRight(Entries<K, L> leftEntries, Entries<K, R> rightEntries,
         Supplier<? extends G> rightCollectionSupplier, JoinConsumer<L, G, K> consumer) {
-        join(leftEntries, new EntryGroups<>(rightEntries, rightCollectionSupplier, this::keyEquals), consumer);
+        join(leftEntries, EntryGroups.byKeyOrder(rightEntries, rightCollectionSupplier, keyOrder), consumer);
     }
     
     public <L, GL extends Collection<L>, R, GR extends Collection<R>> void joinGroupBoth(
@@ -60,11 +219,44 @@ public final class JoinOperator<K> {
         Entries<K, R> rightEntries, Supplier<? extends GR> rightCollectionSupplier,
         JoinConsumer<GL, GR, K> consumer) {
         join(
-            new EntryGroups<>(leftEntries, leftCollectionSupplier, this::keyEquals),
-            new EntryGroups<>(rightEntries, rightCollectionSupplier, this::keyEquals),
+            EntryGroups.byKeyOrder(leftEntries, leftCollectionSupplier, keyOrder),
+            EntryGroups.byKeyOrder(rightEntries, rightCollectionSupplier, keyOrder),
             consumer);
     }
     
+    /**
+     * Replays the matches from the leaf of {@code side} to the root of the loser tree: inner nodes keep the loser,
+     * {@code tree[0]} the overall winner. {@code -1} is the virtual winner used while building the tree, exhausted
+     * sides lose against everything and ties are broken by the index of the side.
+     */
+    private void adjust(Side<?>[] sides, int[] tree, int side) {
+        int winner = side;
+        for (int node = (side + tree.length) >>> 1; node > 0; node >>>= 1) {
+            int other = tree[node];
+            if (other < 0 || (winner >= 0 && beats(sides, other, winner))) {
+                tree[node] = winner;
+                winner = other;
+            }
+        }
+        tree[0] = winner;
+    }
+
+    private boolean beats(Side<?>[] sides, int a, int b) {
+        int c = compareNullsLast(sides[a].nextKey, sides[b].nextKey);
+        return c < 0 || (c == 0 && a < b);
+    }
+
+    /**
+     * Entries reported to be sorted by the same order and distinct need no validation.
+     */
+    private boolean isKnownStrictlyMonotone(Entries<K, ?> entries) {
+        return entries.hasCharacteristics(Spliterator.DISTINCT) && isKnownSorted(entries);
+    }
+
+    private boolean isKnownSorted(Entries<K, ?> entries) {
+        return entries.hasCharacteristics(Spliterator.SORTED) && keyOrder.equals(entries.getKeyComparator());
+    }
+
     private boolean keyEquals(K left, K right) {
         return left == right || keyOrder.compare(left, right) == 0;
     }
@@ -84,6 +276,8 @@ public final class JoinOperator<K> {
     
     @SuppressWarnings("rawtypes")
     private static final JoinOperator NATURAL_OPERATOR = new JoinOperator<>(Comparator.naturalOrder());
+
+    private static final int MIN_PARTITION_SIZE = 1 << 13;
     
     private final class Side<V> {
         
@@ -95,8 +289,15 @@ public final class JoinOperator<K> {
         private V actualValue;
         
         private Side(Entries<K, V> entries) {
+            this(entries, e -> isKnownStrictlyMonotone(e) ? null : LookbackFilter.strictlyMonotone(keyOrder));
+        }
+
+        /**
+         * @param keyOrderValidatorFactory creates the validator of the keys, {@code null} if they need no validation
+         */
+        private Side(Entries<K, V> entries, Function<Entries<K, V>, LookbackFilter<K>> keyOrderValidatorFactory) {
             this.entries = requireNonNull(entries);
-            this.keyOrderValidator = LookbackFilter.strictlyMonotone(keyOrder);
+            this.keyOrderValidator = keyOrderValidatorFactory.apply(entries);
             forward();
         }
         
@@ -111,12 +312,32 @@ public final class JoinOperator<K> {
             }
         }
         
+        /**
+         * Forwards to the first entry with a key not less than {@code target}, seeking if the entries are seekable.
+         */
+        public void skipTo(K target) {
+            if (!(entries instanceof SeekableEntries)) {
+                while (hasNext() && keyOrder.compare(nextKey, target) < 0) {
+                    forward();
+                }
+                return;
+            }
+            if (hasNext() && keyOrder.compare(nextKey, target) < 0) {
+                validateKeyOrder();
+                ((SeekableEntries<K, V>) entries).seek(target);
+                if (!entries.next(this::acceptNext)) {
+                    store(null, null);
+                }
+                actualValue = null;
+            }
+        }
+        
         private void acceptNext(K key, V value) {
             store(key, value);
         }
         
         private void validateKeyOrder() {
-            if (nextKey != null && !keyOrderValidator.test(nextKey)) {
+            if (keyOrderValidator != null && nextKey != null && !keyOrderValidator.test(nextKey)) {
                 K lastKey = keyOrderValidator.getLastAccepted();
                 throw new IllegalArgumentException("keyOrder violated: " + lastKey + ", " + nextKey);
             }
@@ -129,5 +350,224 @@ public final class JoinOperator<K> {
         }
         
     }
+
+    private final class JoinedEntries<L, R, T> implements Entries<K, T> {
+
+        private final Entries<K, L> leftEntries;
+        private final Entries<K, R> rightEntries;
+        private final JoinFunction<? super L, ? super R, ? super K, ? extends T> combiner;
+        private Side<L> left;
+        private Side<R> right;
+
+        private JoinedEntries(Entries<K, L> leftEntries, Entries<K, R> rightEntries,
+            JoinFunction<? super L, ? super R, ? super K, ? extends T> combiner) {
+            this.leftEntries = leftEntries;
+            this.rightEntries = rightEntries;
+            this.combiner = combiner;
+        }
+
+        public boolean next(BiConsumer<K, T> action) {
+            if (left == null) {
+                left = new Side<>(leftEntries);
+                right = new Side<>(rightEntries);
+            }
+            if (!left.hasNext() && !right.hasNext()) {
+                return false;
+            }
+            K actualKey = null;
+            int c = compareNullsLast(left.nextKey, right.nextKey);
+            if (c <= 0) {
+                actualKey = left.nextKey;
+                left.forward();
+            }
+            if (c >= 0) {
+                actualKey = right.nextKey;
+                right.forward();
+            }
+            T value = combiner.apply(left.actualValue, right.actualValue, actualKey);
+            left.actualValue = null;
+            right.actualValue = null;
+            action.accept(actualKey, value);
+            return true;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT;
+        }
+
+        @Override
+        public Comparator<? super K> getKeyComparator() {
+            return keyOrder;
+        }
+    }
+
+    private final class SemiJoinedEntries<L, R> implements Entries<K, L> {
+
+        private final Entries<K, L> leftEntries;
+        private final Entries<K, R> rightEntries;
+        private Side<L> left;
+        private Side<R> right;
+
+        private SemiJoinedEntries(Entries<K, L> leftEntries, Entries<K, R> rightEntries) {
+            this.leftEntries = leftEntries;
+            this.rightEntries = rightEntries;
+        }
+
+        public boolean next(BiConsumer<K, L> action) {
+            if (left == null) {
+                left = new Side<>(leftEntries);
+                right = new Side<>(rightEntries);
+            }
+            while (left.hasNext() && right.hasNext()) {
+                int c = keyOrder.compare(left.nextKey, right.nextKey);
+                if (c < 0) {
+                    left.skipTo(right.nextKey);
+                } else if (c > 0) {
+                    right.skipTo(left.nextKey);
+                } else {
+                    K actualKey = left.nextKey;
+                    left.forward();
+                    L value = left.actualValue;
+                    left.actualValue = null;
+                    action.accept(actualKey, value);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT;
+        }
+
+        @Override
+        public Comparator<? super K> getKeyComparator() {
+            return keyOrder;
+        }
+    }
+
+    private final class PartitionedJoin<L, R, C extends JoinConsumer<L, R, K>> {
+
+        private final List<L> left;
+        private final Function<? super L, ? extends K> leftKeyFun;
+        private final List<R> right;
+        private final Function<? super R, ? extends K> rightKeyFun;
+        private final Supplier<? extends C> partitionConsumerFactory;
+
+        private PartitionedJoin(List<L> left, Function<? super L, ? extends K> leftKeyFun, List<R> right,
+            Function<? super R, ? extends K> rightKeyFun, Supplier<? extends C> partitionConsumerFactory) {
+            this.left = left;
+            this.leftKeyFun = leftKeyFun;
+            this.right = right;
+            this.rightKeyFun = rightKeyFun;
+            this.partitionConsumerFactory = partitionConsumerFactory;
+        }
+
+        /**
+         * Merges {@code left[leftFrom; leftTo)} with {@code right[rightFrom; rightTo)}, validating the key order
+         * including the last key before the partition, so every adjacent pair is validated by exactly one partition.
+         */
+        private List<C> merge(int leftFrom, int leftTo, int rightFrom, int rightTo) {
+            C consumer = requireNonNull(partitionConsumerFactory.get(), "partition consumer");
+            K leftKey = leftFrom > 0 ? leftKey(leftFrom - 1) : null;
+            K rightKey = rightFrom > 0 ? rightKey(rightFrom - 1) : null;
+            int i = leftFrom;
+            int j = rightFrom;
+            K nextLeftKey = nextKey(leftKey, i < leftTo ? leftKey(i) : null);
+            K nextRightKey = nextKey(rightKey, j < rightTo ? rightKey(j) : null);
+            while (nextLeftKey != null || nextRightKey != null) {
+                int c = compareNullsLast(nextLeftKey, nextRightKey);
+                L leftValue = c <= 0 ? left.get(i++) : null;
+                R rightValue = c >= 0 ? right.get(j++) : null;
+                consumer.accept(leftValue, rightValue, c <= 0 ? nextLeftKey : nextRightKey);
+                if (c <= 0) {
+                    leftKey = nextLeftKey;
+                    nextLeftKey = nextKey(leftKey, i < leftTo ? leftKey(i) : null);
+                }
+                if (c >= 0) {
+                    rightKey = nextRightKey;
+                    nextRightKey = nextKey(rightKey, j < rightTo ? rightKey(j) : null);
+                }
+            }
+            return Collections.singletonList(consumer);
+        }
+
+        private K nextKey(K lastKey, K nextKey) {
+            if (lastKey != null && nextKey != null && keyOrder.compare(lastKey, nextKey) >= 0) {
+                throw new IllegalArgumentException("keyOrder violated: " + lastKey + ", " + nextKey);
+            }
+            return nextKey;
+        }
+
+        private K leftKey(int index) {
+            return requireNonNull(leftKeyFun.apply(left.get(index)), "key");
+        }
+
+        private K rightKey(int index) {
+            return requireNonNull(rightKeyFun.apply(right.get(index)), "key");
+        }
+
+        /**
+         * @return the first index in {@code [from; to)} with a key not less than {@code key}
+         */
+        private int lowerBound(IntFunction<K> keyAt, int from, int to, K key) {
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (keyOrder.compare(keyAt.apply(mid), key) < 0) {
+                    from = mid + 1;
+                } else {
+                    to = mid;
+                }
+            }
+            return from;
+        }
+
+        /**
+         * Halves the larger side at its middle key and splits the other side at the same key, so both partitions
+         * cover disjoint key ranges.
+         */
+        private final class Partition extends RecursiveTask<List<C>> {
+
+            private static final long serialVersionUID = 1L;
+
+            private final int leftFrom;
+            private final int leftTo;
+            private final int rightFrom;
+            private final int rightTo;
+            private final long partitionSize;
+
+            private Partition(int leftFrom, int leftTo, int rightFrom, int rightTo, long partitionSize) {
+                this.leftFrom = leftFrom;
+                this.leftTo = leftTo;
+                this.rightFrom = rightFrom;
+                this.rightTo = rightTo;
+                this.partitionSize = partitionSize;
+            }
+
+            @Override
+            protected List<C> compute() {
+                if ((long) leftTo - leftFrom + rightTo - rightFrom <= partitionSize) {
+                    return merge(leftFrom, leftTo, rightFrom, rightTo);
+                }
+                int leftMid;
+                int rightMid;
+                if (leftTo - leftFrom >= rightTo - rightFrom) {
+                    leftMid = (leftFrom + leftTo) >>> 1;
+                    rightMid = lowerBound(PartitionedJoin.this::rightKey, rightFrom, rightTo, leftKey(leftMid));
+                } else {
+                    rightMid = (rightFrom + rightTo) >>> 1;
+                    leftMid = lowerBound(PartitionedJoin.this::leftKey, leftFrom, leftTo, rightKey(rightMid));
+                }
+                Partition prefix = new Partition(leftFrom, leftMid, rightFrom, rightMid, partitionSize);
+                prefix.fork();
+                List<C> suffixConsumers = new Partition(leftMid, leftTo, rightMid, rightTo, partitionSize).compute();
+                List<C> consumers = new ArrayList<>(prefix.join());
+                consumers.addAll(suffixConsumers);
+                return consumers;
+            }
+        }
+    }
     
 }
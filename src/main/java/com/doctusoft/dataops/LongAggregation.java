@@ -0,0 +1,97 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+/**
+ * {@link HashAggregation} keeping a primitive {@code long} aggregate per key.
+ */
+public final class LongAggregation<K, V> extends HashAggregation<K, V, LongAggregation<K, V>> {
+
+    public static <K, V> LongAggregation<K, V> counting() {
+        return new LongAggregation<>(0L, v -> 1L, Long::sum);
+    }
+
+    public static <K, V> LongAggregation<K, V> summing(ToLongFunction<? super V> mapperFun) {
+        return new LongAggregation<>(0L, mapperFun, Long::sum);
+    }
+
+    public static <K, V> LongAggregation<K, V> min(ToLongFunction<? super V> mapperFun) {
+        return new LongAggregation<>(Long.MAX_VALUE, mapperFun, Math::min);
+    }
+
+    public static <K, V> LongAggregation<K, V> max(ToLongFunction<? super V> mapperFun) {
+        return new LongAggregation<>(Long.MIN_VALUE, mapperFun, Math::max);
+    }
+
+    /**
+     * @param identity   the initial aggregate of every key
+     * @param mapperFun  function to map each value to {@code long}
+     * @param reducerFun associative function to combine aggregates, also used to {@link #merge} partial aggregates
+     */
+    public static <K, V> LongAggregation<K, V> reducing(long identity, ToLongFunction<? super V> mapperFun,
+        LongBinaryOperator reducerFun) {
+        return new LongAggregation<>(identity, mapperFun, reducerFun);
+    }
+
+    private final long identity;
+    private final ToLongFunction<? super V> mapperFun;
+    private final LongBinaryOperator reducerFun;
+
+    private long[] values;
+
+    private LongAggregation(long identity, ToLongFunction<? super V> mapperFun, LongBinaryOperator reducerFun) {
+        this.identity = identity;
+        this.mapperFun = requireNonNull(mapperFun, "mapperFun");
+        this.reducerFun = requireNonNull(reducerFun, "reducerFun");
+        this.values = new long[index.columnCapacity()];
+    }
+
+    public void accept(K key, V value) {
+        reduce(key, mapperFun.applyAsLong(value));
+    }
+
+    private void reduce(K key, long value) {
+        int i = index.add(key);
+        if (i < 0) {
+            i = ~i;
+            if (i == values.length) {
+                values = Arrays.copyOf(values, index.columnCapacity());
+            }
+            values[i] = identity;
+        }
+        values[i] = reducerFun.applyAsLong(values[i], value);
+    }
+
+    public LongAggregation<K, V> merge(LongAggregation<K, V> other) {
+        requireNonNull(other, "other");
+        for (int i = 0, ln = other.size(); i < ln; ++i) {
+            reduce(other.index.keyAt(i), other.values[i]);
+        }
+        return this;
+    }
+
+    public long getAsLong(K key, long defaultValue) {
+        int i = index.indexOf(key);
+        return i < 0 ? defaultValue : values[i];
+    }
+
+    public OptionalLong find(K key) {
+        int i = index.indexOf(key);
+        return i < 0 ? OptionalLong.empty() : OptionalLong.of(values[i]);
+    }
+
+    public void forEach(ObjLongConsumer<? super K> action) {
+        requireNonNull(action);
+        for (int i = 0, ln = size(); i < ln; ++i) {
+            action.accept(index.keyAt(i), values[i]);
+        }
+    }
+
+    public Entries<K, Long> toEntries() {
+        return new AggregatedEntries<>(index, i -> values[i]);
+    }
+
+}
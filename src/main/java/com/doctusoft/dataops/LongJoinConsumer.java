@@ -0,0 +1,8 @@
+package com.doctusoft.dataops;
+
+@FunctionalInterface
+public interface LongJoinConsumer<L, R> {
+
+    void accept(L left, R right, long key);
+
+}
@@ -0,0 +1,135 @@
+package com.doctusoft.dataops;
+
+import static com.doctusoft.java.Failsafe.checkArgument;
+import static java.util.Objects.*;
+
+/**
+ * Merge joins strictly increasing {@code long} key columns without boxing: the keys are validated in a separate
+ * pass, the merge loop itself advances both cursors with arithmetic instead of branches and collects the matched
+ * index pairs into {@code int[]} buffers delivered in bulk to an {@link IndexPairConsumer}.
+ * <p>
+ * LongJoinOperator instances are immutable, the {@code with...} methods return new instances.
+ * </p>
+ */
+public final class LongJoinOperator {
+
+    public static LongJoinOperator create() {
+        return DEFAULT_OPERATOR;
+    }
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 10;
+
+    private static final LongJoinOperator DEFAULT_OPERATOR = new LongJoinOperator(DEFAULT_BUFFER_SIZE);
+
+    private final int bufferSize;
+
+    private LongJoinOperator(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Sets the number of index pairs delivered at once.
+     */
+    public LongJoinOperator withBufferSize(int bufferSize) {
+        checkArgument(bufferSize > 0, () -> "Invalid bufferSize: " + bufferSize);
+        return new LongJoinOperator(bufferSize);
+    }
+
+    /**
+     * Delivers the index pairs of the keys present in both columns.
+     */
+    public void innerJoin(long[] leftKeys, long[] rightKeys, IndexPairConsumer consumer) {
+        requireNonNull(consumer);
+        validateKeyOrder(leftKeys);
+        validateKeyOrder(rightKeys);
+        int[] leftIndexes = new int[bufferSize];
+        int[] rightIndexes = new int[bufferSize];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        int leftLength = leftKeys.length;
+        int rightLength = rightKeys.length;
+        while (i < leftLength && j < rightLength) {
+            long left = leftKeys[i];
+            long right = rightKeys[j];
+            leftIndexes[count] = i;
+            rightIndexes[count] = j;
+            count += left == right ? 1 : 0;
+            i += left <= right ? 1 : 0;
+            j += left >= right ? 1 : 0;
+            if (count == bufferSize) {
+                consumer.accept(leftIndexes, rightIndexes, count);
+                count = 0;
+            }
+        }
+        if (count > 0) {
+            consumer.accept(leftIndexes, rightIndexes, count);
+        }
+    }
+
+    /**
+     * Delivers the index pairs of all the keys of both columns in key order, {@code -1} marking the missing side.
+     */
+    public void fullOuterJoin(long[] leftKeys, long[] rightKeys, IndexPairConsumer consumer) {
+        requireNonNull(consumer);
+        validateKeyOrder(leftKeys);
+        validateKeyOrder(rightKeys);
+        int[] leftIndexes = new int[bufferSize];
+        int[] rightIndexes = new int[bufferSize];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        int leftLength = leftKeys.length;
+        int rightLength = rightKeys.length;
+        while (i < leftLength || j < rightLength) {
+            if (i < leftLength && j < rightLength) {
+                long left = leftKeys[i];
+                long right = rightKeys[j];
+                leftIndexes[count] = left <= right ? i : -1;
+                rightIndexes[count] = left >= right ? j : -1;
+                i += left <= right ? 1 : 0;
+                j += left >= right ? 1 : 0;
+            } else if (i < leftLength) {
+                leftIndexes[count] = i++;
+                rightIndexes[count] = -1;
+            } else {
+                leftIndexes[count] = -1;
+                rightIndexes[count] = j++;
+            }
+            if (++count == bufferSize) {
+                consumer.accept(leftIndexes, rightIndexes, count);
+                count = 0;
+            }
+        }
+        if (count > 0) {
+            consumer.accept(leftIndexes, rightIndexes, count);
+        }
+    }
+
+    /**
+     * Full outer join of parallel key and value columns with the same semantics as {@link JoinOperator#join}.
+     */
+    public <L, R> void join(long[] leftKeys, L[] leftValues, long[] rightKeys, R[] rightValues,
+        LongJoinConsumer<L, R> consumer) {
+        checkArgument(leftKeys.length == leftValues.length, "Left key and value columns differ in length");
+        checkArgument(rightKeys.length == rightValues.length, "Right key and value columns differ in length");
+        requireNonNull(consumer);
+        fullOuterJoin(leftKeys, rightKeys, (leftIndexes, rightIndexes, count) -> {
+            for (int k = 0; k < count; ++k) {
+                int i = leftIndexes[k];
+                int j = rightIndexes[k];
+                consumer.accept(i < 0 ? null : leftValues[i], j < 0 ? null : rightValues[j],
+                    i < 0 ? rightKeys[j] : leftKeys[i]);
+            }
+        });
+    }
+
+    private static void validateKeyOrder(long[] keys) {
+        for (int i = 1; i < keys.length; ++i) {
+            if (keys[i - 1] >= keys[i]) {
+                throw new IllegalArgumentException("keyOrder violated: " + keys[i - 1] + ", " + keys[i]);
+            }
+        }
+    }
+
+}
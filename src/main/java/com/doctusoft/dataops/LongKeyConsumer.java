@@ -0,0 +1,12 @@
+package com.doctusoft.dataops;
+
+/**
+ * Primitive {@code long} key specialization of a {@link java.util.function.BiConsumer} to consume
+ * {@link LongKeyEntries} without boxing the keys.
+ */
+@FunctionalInterface
+public interface LongKeyConsumer<V> {
+
+    void accept(long key, V value);
+
+}
@@ -0,0 +1,94 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+import static java.util.Objects.*;
+
+/**
+ * Primitive {@code long} key specialization of {@link Entries}: keys are never boxed while the entries are iterated,
+ * filtered, transformed or grouped.
+ */
+public interface LongKeyEntries<V> {
+
+    boolean next(LongKeyConsumer<V> action);
+
+    static <V> LongKeyEntries<V> forColumns(long[] keys, V[] values) {
+        return new LongKeyEntriesForArrays<>(keys, values);
+    }
+
+    /**
+     * Extracts the keys of the {@code values} - in parallel, so {@code mapperFun} must be thread-safe - and sorts
+     * them with a stable parallel radix sort. The list is reordered in place as well.
+     */
+    @SuppressWarnings("unchecked")
+    static <V> LongKeyEntries<V> parallelSortAndIndex(List<V> values, ToLongFunction<? super V> mapperFun) {
+        requireNonNull(mapperFun);
+        Object[] valueColumn = values.toArray();
+        long[] keyColumn = new long[valueColumn.length];
+        IntStream.range(0, valueColumn.length).parallel()
+            .forEach(i -> keyColumn[i] = mapperFun.applyAsLong((V) valueColumn[i]));
+        int[] order = RadixSort.sort(keyColumn);
+        V[] sortedValues = (V[]) new Object[valueColumn.length];
+        ListIterator<V> iterator = values.listIterator();
+        for (int i = 0; i < order.length; ++i) {
+            sortedValues[i] = (V) valueColumn[order[i]];
+            iterator.next();
+            iterator.set(sortedValues[i]);
+        }
+        return new LongKeyEntriesForArrays<>(keyColumn, sortedValues);
+    }
+
+    static <V> LongKeyEntries<V> indexValues(Iterable<V> values, ToLongFunction<? super V> mapperFun) {
+        return new LongKeyEntriesForValues<>(values.iterator(), mapperFun);
+    }
+
+    static <V> LongKeyEntries<V> indexValueIterator(Iterator<V> iterator, ToLongFunction<? super V> mapperFun) {
+        return new LongKeyEntriesForValues<>(iterator, mapperFun);
+    }
+
+    default void forEach(LongKeyConsumer<V> action) {
+        while (next(action)) {
+            // nothing more to do here
+        }
+    }
+
+    default LongKeyEntries<V> filterKeys(LongPredicate filter) {
+        requireNonNull(filter);
+        return new FilteredLongKeyEntries<>(this, filter, Always.alwaysTrue());
+    }
+
+    default LongKeyEntries<V> filterValues(Predicate<? super V> filter) {
+        requireNonNull(filter);
+        return new FilteredLongKeyEntries<>(this, FilteredLongKeyEntries.ALWAYS_TRUE, filter);
+    }
+
+    default LongKeyEntries<V> transformKeys(LongUnaryOperator keyFun) {
+        requireNonNull(keyFun);
+        return new TransformedLongKeyEntries<>(this, keyFun, Function.identity());
+    }
+
+    default <T> LongKeyEntries<T> transformValues(Function<? super V, ? extends T> valueFun) {
+        requireNonNull(valueFun);
+        return new TransformedLongKeyEntries<>(this, TransformedLongKeyEntries.IDENTITY, valueFun);
+    }
+
+    default <T> Entries<T, V> boxKeys(LongFunction<? extends T> keyFun) {
+        requireNonNull(keyFun);
+        return new EntriesForLongKeys<>(this, keyFun);
+    }
+
+    default Entries<Long, V> boxed() {
+        return boxKeys(Long::valueOf);
+    }
+
+    default LongKeyEntries<ArrayList<V>> intoGroups() {
+        return new LongKeyEntryGroups<>(this, ArrayList::new);
+    }
+
+    default <G extends Collection<V>> LongKeyEntries<G> intoGroups(Supplier<? extends G> groupFactory) {
+        return new LongKeyEntryGroups<>(this, groupFactory);
+    }
+
+}
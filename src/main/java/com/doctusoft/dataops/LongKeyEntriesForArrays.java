@@ -0,0 +1,37 @@
+package com.doctusoft.dataops;
+
+import static com.doctusoft.java.Failsafe.checkArgument;
+import static java.util.Objects.*;
+
+final class LongKeyEntriesForArrays<V> implements LongKeyEntries<V> {
+
+    private final long[] keys;
+    private final V[] values;
+    private final int ln;
+    private int i;
+
+    LongKeyEntriesForArrays(long[] keys, V[] values) {
+        this.keys = requireNonNull(keys, "keys");
+        this.values = requireNonNull(values, "values");
+        checkArgument(keys.length == values.length, "Key and value columns differ in length");
+        this.ln = values.length;
+    }
+
+    public boolean next(LongKeyConsumer<V> action) {
+        if (i < ln) {
+            action.accept(keys[i], values[i]);
+            ++i;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEach(LongKeyConsumer<V> action) {
+        requireNonNull(action);
+        for (; i < ln; ++i) {
+            action.accept(keys[i], values[i]);
+        }
+    }
+
+}
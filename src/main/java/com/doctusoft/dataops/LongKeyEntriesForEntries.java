@@ -0,0 +1,28 @@
+package com.doctusoft.dataops;
+
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+final class LongKeyEntriesForEntries<K, V> implements LongKeyEntries<V>, BiConsumer<K, V> {
+
+    private final Entries<K, V> entries;
+    private final ToLongFunction<? super K> keyFun;
+
+    private LongKeyConsumer<V> action;
+
+    LongKeyEntriesForEntries(Entries<K, V> entries, ToLongFunction<? super K> keyFun) {
+        this.entries = requireNonNull(entries, "entries");
+        this.keyFun = requireNonNull(keyFun, "keyFun");
+    }
+
+    public boolean next(LongKeyConsumer<V> action) {
+        this.action = requireNonNull(action);
+        return entries.next(this);
+    }
+
+    public void accept(K key, V value) {
+        action.accept(keyFun.applyAsLong(key), value);
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+final class LongKeyEntriesForValues<V> implements LongKeyEntries<V> {
+
+    private final Iterator<V> valueIterator;
+    private final ToLongFunction<? super V> mapperFun;
+
+    LongKeyEntriesForValues(Iterator<V> valueIterator, ToLongFunction<? super V> mapperFun) {
+        this.valueIterator = requireNonNull(valueIterator);
+        this.mapperFun = requireNonNull(mapperFun);
+    }
+
+    public boolean next(LongKeyConsumer<V> consumer) {
+        if (valueIterator.hasNext()) {
+            V value = valueIterator.next();
+            consumer.accept(mapperFun.applyAsLong(value), value);
+            return true;
+        }
+        return false;
+    }
+
+}
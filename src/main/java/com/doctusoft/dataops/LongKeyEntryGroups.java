@@ -0,0 +1,64 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+/**
+ * Primitive {@code long} key specialization of {@link EntryGroups}: collects adjacent values with equal keys.
+ */
+final class LongKeyEntryGroups<V, G extends Collection<V>> implements LongKeyEntries<G>, LongKeyConsumer<V> {
+
+    private final LongKeyEntries<V> entries;
+    private final Supplier<? extends G> factory;
+
+    private boolean grouping;
+    private long actualKey;
+    private G actualGroup;
+
+    private boolean pending;
+    private long pendingKey;
+    private V pendingValue;
+
+    LongKeyEntryGroups(LongKeyEntries<V> entries, Supplier<? extends G> factory) {
+        this.entries = requireNonNull(entries, "entries");
+        this.factory = requireNonNull(factory, "factory");
+    }
+
+    public boolean next(LongKeyConsumer<G> action) {
+        requireNonNull(action);
+        if (pending) {
+            pending = false;
+            accept(pendingKey, pendingValue);
+            pendingValue = null;
+        }
+        while (!pending && entries.next(this)) {
+            // nothing more to do here
+        }
+        if (grouping) {
+            G group = actualGroup;
+            grouping = false;
+            actualGroup = null;
+            action.accept(actualKey, group);
+            return true;
+        }
+        return false;
+    }
+
+    public void accept(long key, V value) {
+        if (!grouping) {
+            grouping = true;
+            actualKey = key;
+            actualGroup = factory.get();
+            actualGroup.add(value);
+        } else if (key == actualKey) {
+            actualGroup.add(value);
+        } else {
+            pending = true;
+            pendingKey = key;
+            pendingValue = value;
+        }
+    }
+
+}
@@ -0,0 +1,350 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+/**
+ * The immutable ordinal to value storage of a {@link LookupTable}, its layout is chosen from the distribution of the
+ * ordinals: a dense array starting at the smallest ordinal for narrow ranges, an array of lazily allocated pages for
+ * clustered ordinals, and sorted ordinal and value columns searched by interpolation for sparse ordinals.
+ */
+abstract class LookupStorage {
+
+    static final int PAGE_BITS = 10;
+    static final int PAGE_SIZE = 1 << PAGE_BITS;
+    static final int DIRECTORY_BITS = 11;
+    static final int DIRECTORY_SIZE = 1 << DIRECTORY_BITS;
+    private static final int MAX_SLOTS_PER_VALUE = 4;
+    private static final int MIN_DENSE_SLOTS = 64;
+
+    /**
+     * Collects the ordinals and values of a table, rejecting {@code null} values and ordinals given twice.
+     */
+    static final class Builder implements IntKeyConsumer<Object> {
+
+        private int[] ordinals = new int[16];
+        private Object[] values = new Object[16];
+        private int size;
+
+        public void accept(int ordinal, Object value) {
+            requireNonNull(value, () -> "Null value for key: #" + ordinal);
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size << 1);
+                values = Arrays.copyOf(values, size << 1);
+            }
+            ordinals[size] = ordinal;
+            values[size++] = value;
+        }
+
+        LookupStorage build() {
+            int[] sortedOrdinals = Arrays.copyOf(ordinals, size);
+            int[] order = RadixSort.sort(sortedOrdinals);
+            Object[] sortedValues = new Object[size];
+            for (int i = 0; i < size; ++i) {
+                if (i > 0 && sortedOrdinals[i] == sortedOrdinals[i - 1]) {
+                    throw new IllegalArgumentException("Duplicate value for key: #" + sortedOrdinals[i]);
+                }
+                sortedValues[i] = values[order[i]];
+            }
+            return LookupStorage.of(sortedOrdinals, sortedValues);
+        }
+    }
+
+    enum Layout {
+        DENSE, PAGED, SPARSE
+    }
+
+    /**
+     * @param ordinals distinct ordinals in ascending order
+     * @param values   the non-null values of the {@code ordinals}
+     */
+    static LookupStorage of(int[] ordinals, Object[] values) {
+        switch (layoutOf(ordinals)) {
+            case DENSE:
+                return new Dense(ordinals[0], ordinals, values, (int) span(ordinals));
+            case PAGED:
+                return new Paged(ordinals[0], ordinals, values, directorySize(ordinals));
+            default:
+                return new Sparse(ordinals, values);
+        }
+    }
+
+    /**
+     * Chooses the layout of at most {@code 4} slots per value: dense if the span of the ordinals fits, paged if the
+     * directory and the pages holding values fit, sparse otherwise.
+     *
+     * @param ordinals distinct ordinals in ascending order
+     */
+    static Layout layoutOf(int[] ordinals) {
+        int size = ordinals.length;
+        if (size == 0) {
+            return Layout.SPARSE;
+        }
+        long maxSlots = maxSlots(size);
+        if (span(ordinals) <= maxSlots) {
+            return Layout.DENSE;
+        }
+        long offset = ordinals[0];
+        long pages = 1;
+        for (int i = 1; i < size; ++i) {
+            if ((ordinals[i] - offset) >>> PAGE_BITS != (ordinals[i - 1] - offset) >>> PAGE_BITS) {
+                ++pages;
+            }
+        }
+        return directorySize(ordinals) + pages * PAGE_SIZE <= maxSlots ? Layout.PAGED : Layout.SPARSE;
+    }
+
+    /**
+     * @return the number of slots a layout may allocate for {@code size} values
+     */
+    static long maxSlots(int size) {
+        return Math.max((long) size * MAX_SLOTS_PER_VALUE, MIN_DENSE_SLOTS);
+    }
+
+    static long span(int[] ordinals) {
+        return (long) ordinals[ordinals.length - 1] - ordinals[0] + 1;
+    }
+
+    static int directorySize(int[] ordinals) {
+        return (int) (((span(ordinals) - 1) >>> PAGE_BITS) + 1);
+    }
+
+    /**
+     * @return the value of the {@code ordinal} or {@code null} if there is none
+     */
+    abstract Object get(int ordinal);
+
+    /**
+     * Iterates the present ordinals and their values in ascending order of the ordinals.
+     */
+    abstract void forEach(IntKeyConsumer<Object> action);
+
+    /**
+     * @return a storage of the same layout holding the transformed values
+     */
+    abstract LookupStorage transform(Function<Object, Object> transformFun);
+
+    static final class Dense extends LookupStorage {
+
+        private final int offset;
+        private final Object[] slots;
+
+        private Dense(int offset, Object[] slots) {
+            this.offset = offset;
+            this.slots = slots;
+        }
+
+        private Dense(int offset, int[] ordinals, Object[] values, int span) {
+            this(offset, new Object[span]);
+            for (int i = 0; i < ordinals.length; ++i) {
+                slots[ordinals[i] - offset] = values[i];
+            }
+        }
+
+        Object get(int ordinal) {
+            long index = (long) ordinal - offset;
+            return index >= 0 && index < slots.length ? slots[(int) index] : null;
+        }
+
+        void forEach(IntKeyConsumer<Object> action) {
+            for (int i = 0; i < slots.length; ++i) {
+                if (slots[i] != null) {
+                    action.accept(offset + i, slots[i]);
+                }
+            }
+        }
+
+        LookupStorage transform(Function<Object, Object> transformFun) {
+            Object[] transformedSlots = new Object[slots.length];
+            for (int i = 0; i < slots.length; ++i) {
+                transformedSlots[i] = slots[i] == null ? null : transformFun.apply(slots[i]);
+            }
+            return new Dense(offset, transformedSlots);
+        }
+    }
+
+    /**
+     * Two-level array: the directory holds a page per {@code PAGE_SIZE} ordinals, pages without values are never
+     * allocated.
+     */
+    static final class Paged extends LookupStorage {
+
+        private final int offset;
+        private final Object[][] pages;
+
+        private Paged(int offset, Object[][] pages) {
+            this.offset = offset;
+            this.pages = pages;
+        }
+
+        private Paged(int offset, int[] ordinals, Object[] values, int directorySize) {
+            this(offset, new Object[directorySize][]);
+            for (int i = 0; i < ordinals.length; ++i) {
+                long index = (long) ordinals[i] - offset;
+                int page = (int) (index >>> PAGE_BITS);
+                if (pages[page] == null) {
+                    pages[page] = new Object[PAGE_SIZE];
+                }
+                pages[page][(int) index & (PAGE_SIZE - 1)] = values[i];
+            }
+        }
+
+        Object get(int ordinal) {
+            long index = (long) ordinal - offset;
+            if (index < 0 || index >>> PAGE_BITS >= pages.length) {
+                return null;
+            }
+            Object[] page = pages[(int) (index >>> PAGE_BITS)];
+            return page == null ? null : page[(int) index & (PAGE_SIZE - 1)];
+        }
+
+        void forEach(IntKeyConsumer<Object> action) {
+            for (int page = 0; page < pages.length; ++page) {
+                if (pages[page] != null) {
+                    for (int i = 0; i < PAGE_SIZE; ++i) {
+                        if (pages[page][i] != null) {
+                            action.accept((int) (offset + ((long) page << PAGE_BITS) + i), pages[page][i]);
+                        }
+                    }
+                }
+            }
+        }
+
+        LookupStorage transform(Function<Object, Object> transformFun) {
+            Object[][] transformedPages = new Object[pages.length][];
+            for (int page = 0; page < pages.length; ++page) {
+                if (pages[page] != null) {
+                    transformedPages[page] = new Object[PAGE_SIZE];
+                    for (int i = 0; i < PAGE_SIZE; ++i) {
+                        Object value = pages[page][i];
+                        transformedPages[page][i] = value == null ? null : transformFun.apply(value);
+                    }
+                }
+            }
+            return new Paged(offset, transformedPages);
+        }
+    }
+
+    /**
+     * Three-level array of a {@link ConcurrentLookupTable}: the root holds a directory per {@code DIRECTORY_SIZE}
+     * pages, a directory holds a page per {@code PAGE_SIZE} ordinals, directories and pages without values are never
+     * allocated.
+     */
+    static final class PageTree extends LookupStorage {
+
+        private final int offset;
+        private final Object[][][] directories;
+
+        /**
+         * @param directories shared, never modified
+         */
+        PageTree(int offset, Object[][][] directories) {
+            this.offset = offset;
+            this.directories = directories;
+        }
+
+        Object get(int ordinal) {
+            long index = (long) ordinal - offset;
+            if (index < 0 || index >>> (PAGE_BITS + DIRECTORY_BITS) >= directories.length) {
+                return null;
+            }
+            Object[][] directory = directories[(int) (index >>> (PAGE_BITS + DIRECTORY_BITS))];
+            Object[] page = directory == null ? null : directory[(int) (index >>> PAGE_BITS) & (DIRECTORY_SIZE - 1)];
+            return page == null ? null : page[(int) index & (PAGE_SIZE - 1)];
+        }
+
+        void forEach(IntKeyConsumer<Object> action) {
+            for (int d = 0; d < directories.length; ++d) {
+                for (int page = 0; directories[d] != null && page < DIRECTORY_SIZE; ++page) {
+                    Object[] values = directories[d][page];
+                    for (int i = 0; values != null && i < PAGE_SIZE; ++i) {
+                        if (values[i] != null) {
+                            long index = ((long) d << (PAGE_BITS + DIRECTORY_BITS)) + ((long) page << PAGE_BITS) + i;
+                            action.accept((int) (offset + index), values[i]);
+                        }
+                    }
+                }
+            }
+        }
+
+        LookupStorage transform(Function<Object, Object> transformFun) {
+            Object[][][] transformedDirectories = new Object[directories.length][][];
+            for (int d = 0; d < directories.length; ++d) {
+                if (directories[d] != null) {
+                    transformedDirectories[d] = new Object[DIRECTORY_SIZE][];
+                    for (int page = 0; page < DIRECTORY_SIZE; ++page) {
+                        Object[] values = directories[d][page];
+                        if (values != null) {
+                            Object[] transformedValues = new Object[PAGE_SIZE];
+                            for (int i = 0; i < PAGE_SIZE; ++i) {
+                                transformedValues[i] = values[i] == null ? null : transformFun.apply(values[i]);
+                            }
+                            transformedDirectories[d][page] = transformedValues;
+                        }
+                    }
+                }
+            }
+            return new PageTree(offset, transformedDirectories);
+        }
+    }
+
+    /**
+     * Sorted ordinal and value columns: lookups start with interpolation probes, which find uniformly spread
+     * ordinals in a few steps, and fall back to binary search for skewed ordinals.
+     */
+    static final class Sparse extends LookupStorage {
+
+        private static final int INTERPOLATION_PROBES = 3;
+
+        private final int[] ordinals;
+        private final Object[] values;
+
+        private Sparse(int[] ordinals, Object[] values) {
+            this.ordinals = ordinals;
+            this.values = values;
+        }
+
+        Object get(int ordinal) {
+            int low = 0;
+            int high = ordinals.length - 1;
+            for (int probes = 0; low <= high; ++probes) {
+                int lowOrdinal = ordinals[low];
+                int highOrdinal = ordinals[high];
+                if (ordinal < lowOrdinal || ordinal > highOrdinal) {
+                    return null;
+                }
+                int mid = probes < INTERPOLATION_PROBES && highOrdinal > lowOrdinal
+                    ? low + (int) (((long) ordinal - lowOrdinal) * (high - low) / ((long) highOrdinal - lowOrdinal))
+                    : (low + high) >>> 1;
+                int midOrdinal = ordinals[mid];
+                if (midOrdinal < ordinal) {
+                    low = mid + 1;
+                } else if (midOrdinal > ordinal) {
+                    high = mid - 1;
+                } else {
+                    return values[mid];
+                }
+            }
+            return null;
+        }
+
+        void forEach(IntKeyConsumer<Object> action) {
+            for (int i = 0; i < ordinals.length; ++i) {
+                if (values[i] != null) {
+                    action.accept(ordinals[i], values[i]);
+                }
+            }
+        }
+
+        LookupStorage transform(Function<Object, Object> transformFun) {
+            Object[] transformedValues = new Object[values.length];
+            for (int i = 0; i < values.length; ++i) {
+                transformedValues[i] = transformFun.apply(values[i]);
+            }
+            return new Sparse(ordinals, transformedValues);
+        }
+    }
+
+}
@@ -2,11 +2,11 @@ package com.doctusoft.dataops;
 
 import com.doctusoft.math.ClosedRange;
 
+import java.nio.file.*;
 import java.util.*;
 import java.util.function.*;
 
 import static com.doctusoft.dataops.Entries.forMap;
-import static com.doctusoft.dataops.Entries.indexValues;
 import static com.doctusoft.java.Failsafe.checkArgument;
 import static java.util.Objects.*;
 
@@ -17,8 +17,7 @@ public final class LookupTable<K, V> {
         ToIntFunction<? super V> valueOrdinalFun,
         ToIntFunction<? super K> keyOrdinalFun,
         ClosedRange<Integer> validRange) {
-        return new LookupTable<>(validRange, Integer::intValue, indexValues(values, v -> valueOrdinalFun.applyAsInt(v)))
-            .changeKeys(keyOrdinalFun);
+        return new LookupTable<>(validRange, keyOrdinalFun, IntKeyEntries.indexValues(values, valueOrdinalFun));
     }
 
     public static <K, V> LookupTable<K, V> fromMap(
@@ -35,40 +34,51 @@ public final class LookupTable<K, V> {
         return new LookupTable<>(validRange, keyOrdinalFun, entries);
     }
 
+    public static <V> LookupTable<Integer, V> fromIntKeyEntries(
+        IntKeyEntries<V> entries,
+        ClosedRange<Integer> validRange) {
+        return new LookupTable<>(validRange, Integer::intValue, entries);
+    }
+
     private final ClosedRange<Integer> validRange;
 
-    private final Object[] table;
+    private final LookupStorage storage;
 
     private final ToIntFunction<? super K> keyOrdinalFun;
 
-    private LookupTable(ClosedRange<Integer> validRange, Object[] table,
+    LookupTable(ClosedRange<Integer> validRange, LookupStorage storage,
         ToIntFunction<? super K> keyOrdinalFun) {
         this.validRange = requireNonNull(validRange, "validRange");
-        this.table = requireNonNull(table, "table");
+        this.storage = requireNonNull(storage, "storage");
         this.keyOrdinalFun = requireNonNull(keyOrdinalFun, "keyOrdinalFun");
     }
 
     private LookupTable(ClosedRange<Integer> validRange, ToIntFunction<? super K> keyOrdinalFun,
         Entries<K, V> entries) {
-        this.validRange = requireNonNull(validRange, "validRange");
-        this.keyOrdinalFun = requireNonNull(keyOrdinalFun, "keyOrdinalFun");
-        int size = validRange.getUpperBound() + 1;
-        checkArgument(size > validRange.getUpperBound(), "Integer overflow");
-        this.table = new Object[size];
-        requireNonNull(entries, "entries").forEach((k, v) -> fill(keyOrdinalFun.applyAsInt(k), v));
+        this(validRange, createStorage(validRange, builder -> requireNonNull(entries, "entries")
+            .forEach((k, v) -> builder.accept(keyOrdinalFun.applyAsInt(k), v))), keyOrdinalFun);
     }
 
-    private void fill(int index, V value) {
-        requireNonNull(value, () -> "Null value for key: #" + index);
-        if (table[index] != null) {
-            throw new IllegalArgumentException("Duplicate value for key: #" + index);
-        }
-        table[index] = value;
+    private LookupTable(ClosedRange<Integer> validRange, ToIntFunction<? super K> keyOrdinalFun,
+        IntKeyEntries<V> entries) {
+        this(validRange, createStorage(validRange, builder -> requireNonNull(entries, "entries")
+            .forEach(builder::accept)), keyOrdinalFun);
+    }
+
+    private static LookupStorage createStorage(ClosedRange<Integer> validRange,
+        Consumer<IntKeyConsumer<Object>> filler) {
+        requireNonNull(validRange, "validRange");
+        LookupStorage.Builder builder = new LookupStorage.Builder();
+        filler.accept((ordinal, value) -> {
+            validRange.checkContains(ordinal, "index");
+            builder.accept(ordinal, value);
+        });
+        return builder.build();
     }
 
     public V get(int ordinal) {
         validRange.checkContains(ordinal, "index");
-        return (V) table[ordinal];
+        return (V) storage.get(ordinal);
     }
 
     public Optional<V> find(int ordinal) {
@@ -86,22 +96,130 @@ public final class LookupTable<K, V> {
         );
     }
 
+    /**
+     * Index nested-loop join: streams the unsorted {@code leftEntries} and probes this table by the ordinal of each
+     * key, so the left side needs no sorting. Every left entry is delivered, with a {@code null} right value if the
+     * table has no value for its key (left outer join).
+     */
+    public <L> void leftJoin(Entries<K, L> leftEntries, JoinConsumer<L, V, K> consumer) {
+        requireNonNull(consumer);
+        int lowerBound = validRange.getLowerBound();
+        int upperBound = validRange.getUpperBound();
+        leftEntries.forEach((key, value) -> consumer.accept(value, probe(ordinal(key), lowerBound, upperBound), key));
+    }
+
+    /**
+     * Bulk variant of {@link #leftJoin(Entries, JoinConsumer)}: the left entries are buffered in chunks of
+     * {@code chunkSize}, and the ordinals of a chunk are computed and resolved in two tight loops before the chunk
+     * is delivered.
+     */
+    public <L> void leftJoin(Entries<K, L> leftEntries, int chunkSize, JoinConsumer<L, V, K> consumer) {
+        checkArgument(chunkSize > 0, () -> "Invalid chunkSize: " + chunkSize);
+        ChunkedProbe<L> probe = new ChunkedProbe<>(chunkSize, requireNonNull(consumer));
+        leftEntries.forEach(probe);
+        probe.flush();
+    }
+
+    @SuppressWarnings("unchecked")
+    private V probe(int ordinal, int lowerBound, int upperBound) {
+        return ordinal >= lowerBound && ordinal <= upperBound ? (V) storage.get(ordinal) : null;
+    }
+
     private int ordinal(K key) {
         return keyOrdinalFun.applyAsInt(key);
     }
 
     public <T> LookupTable<T, V> changeKeys(ToIntFunction<? super T> newKeyOrdinalFun) {
-        return new LookupTable<>(validRange, table, newKeyOrdinalFun);
+        return new LookupTable<>(validRange, storage, newKeyOrdinalFun);
     }
 
     public <T> LookupTable<K, T> transformValues(Function<? super V, ? extends T> transformFun) {
-        Object[] transformedValues = table.clone();
-        int ln = transformedValues.length;
-        for (int i = 0; i < ln; ++i) {
-            Object original = table[i];
-            transformedValues[i] = original == null ? null : transformFun.apply((V) original);
+        return new LookupTable<K, T>(validRange, storage.transform(value -> transformFun.apply((V) value)),
+            keyOrdinalFun);
+    }
+
+    @SuppressWarnings("unchecked")
+    public IntLookupTable<K> transformToInt(ToIntFunction<? super V> transformFun) {
+        requireNonNull(transformFun, "transformFun");
+        IntLookupTable.Builder<K> builder = new IntLookupTable.Builder<>(validRange, keyOrdinalFun);
+        storage.forEach((ordinal, value) -> builder.accept(ordinal, transformFun.applyAsInt((V) value)));
+        return builder.build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public LongLookupTable<K> transformToLong(ToLongFunction<? super V> transformFun) {
+        requireNonNull(transformFun, "transformFun");
+        LongLookupTable.Builder<K> builder = new LongLookupTable.Builder<>(validRange, keyOrdinalFun);
+        storage.forEach((ordinal, value) -> builder.accept(ordinal, transformFun.applyAsLong((V) value)));
+        return builder.build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public DoubleLookupTable<K> transformToDouble(ToDoubleFunction<? super V> transformFun) {
+        requireNonNull(transformFun, "transformFun");
+        DoubleLookupTable.Builder<K> builder = new DoubleLookupTable.Builder<>(validRange, keyOrdinalFun);
+        storage.forEach((ordinal, value) -> builder.accept(ordinal, transformFun.applyAsDouble((V) value)));
+        return builder.build();
+    }
+
+    /**
+     * Writes the table to a file to be opened by {@link MappedLookupTable#open}, every value encoded by the
+     * {@code valueSerializer} into a slot of {@code valueWidth} bytes.
+     *
+     * @throws IllegalArgumentException if a value is wider than {@code valueWidth} bytes
+     * @throws java.io.UncheckedIOException if writing the file fails
+     */
+    @SuppressWarnings("unchecked")
+    public void writeTo(Path file, Serializer<? super V> valueSerializer, int valueWidth) {
+        MappedLookupTable.<V>write(file, validRange, valueWidth, valueSerializer,
+            action -> storage.forEach((ordinal, value) -> action.accept(ordinal, (V) value)));
+    }
+
+    private final class ChunkedProbe<L> implements BiConsumer<K, L> {
+
+        private final JoinConsumer<L, V, K> consumer;
+        private final Object[] keys;
+        private final Object[] values;
+        private final int[] ordinals;
+        private final Object[] matches;
+        private final int lowerBound;
+        private final int upperBound;
+        private int size;
+
+        private ChunkedProbe(int chunkSize, JoinConsumer<L, V, K> consumer) {
+            this.consumer = consumer;
+            this.keys = new Object[chunkSize];
+            this.values = new Object[chunkSize];
+            this.ordinals = new int[chunkSize];
+            this.matches = new Object[chunkSize];
+            this.lowerBound = validRange.getLowerBound();
+            this.upperBound = validRange.getUpperBound();
+        }
+
+        public void accept(K key, L value) {
+            keys[size] = key;
+            values[size++] = value;
+            if (size == keys.length) {
+                flush();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void flush() {
+            for (int i = 0; i < size; ++i) {
+                ordinals[i] = ordinal((K) keys[i]);
+            }
+            for (int i = 0; i < size; ++i) {
+                matches[i] = probe(ordinals[i], lowerBound, upperBound);
+            }
+            for (int i = 0; i < size; ++i) {
+                consumer.accept((L) values[i], (V) matches[i], (K) keys[i]);
+            }
+            Arrays.fill(keys, 0, size, null);
+            Arrays.fill(values, 0, size, null);
+            Arrays.fill(matches, 0, size, null);
+            size = 0;
         }
-        return new LookupTable<K, T>(validRange, transformedValues, keyOrdinalFun);
     }
 
 }
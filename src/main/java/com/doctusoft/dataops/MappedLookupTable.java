@@ -0,0 +1,447 @@
+package com.doctusoft.dataops;
+
+import com.doctusoft.math.ClosedRange;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+import static com.doctusoft.java.Failsafe.*;
+import static java.util.Objects.*;
+
+/**
+ * Read-only lookup table backed by a memory-mapped file, written by {@link LookupTable#writeTo} or the
+ * {@code writeTo} methods of the primitive lookup tables. Opening a table maps the file without reading it, the
+ * values stay off-heap in the page cache, which is shared by all processes mapping the same file.
+ * <p>
+ * The file holds the values in fixed width slots, all numbers are big-endian. Tables with at most {@code 4} ordinals
+ * of the valid range per value are written in the dense layout with a slot for every ordinal, sparser tables in the
+ * sparse layout with a slot per value, found by binary search over the sorted ordinals:
+ * </p>
+ * <pre>
+ * offset    size            content
+ * 0         4               magic number 0x4C4B5550 ("LKUP")
+ * 4         4               format version, 1
+ * 8         4               lower bound of the valid range
+ * 12        4               upper bound of the valid range, n = upper - lower + 1 ordinals
+ * 16        4               slot width w in bytes
+ * 20        4               layout, 0 for dense, 1 for sparse
+ * 24        4               number of values m
+ * 28        4               reserved, 0
+ *
+ * dense layout:
+ * 32        8 * ceil(n/64)  presence bitmap: bit (i % 64) of word (i / 64) is set if ordinal lower + i has a value
+ * ...       n * w           slots: slot i holds the value of ordinal lower + i, slots without values are zero
+ *
+ * sparse layout:
+ * 32        4 * m           the ordinals with values in ascending order
+ * ...       m * w           slots: slot i holds the value of the i-th ordinal
+ * </pre>
+ * <p>
+ * Values are written by the value {@link Serializer} and zero padded to {@code w} bytes. Values written by
+ * {@link Serializer#ofInteger()}, {@link Serializer#ofLong()} and {@link Serializer#ofDouble()} - and so the files of
+ * the primitive lookup tables - can be read without boxing by the {@code getAs...} methods.
+ * </p>
+ */
+public final class MappedLookupTable<K, V> {
+
+    /**
+     * @throws IllegalArgumentException if the file is not a lookup table file
+     * @throws UncheckedIOException     if mapping the file fails
+     */
+    public static <K, V> MappedLookupTable<K, V> open(Path file, ToIntFunction<? super K> keyOrdinalFun,
+        Serializer<V> valueSerializer) {
+        requireNonNull(file, "file");
+        requireNonNull(keyOrdinalFun, "keyOrdinalFun");
+        requireNonNull(valueSerializer, "valueSerializer");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            checkArgument(fileSize >= HEADER_SIZE, () -> "Not a lookup table file: " + file);
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            checkArgument(header.getInt(0) == MAGIC, () -> "Not a lookup table file: " + file);
+            checkArgument(header.getInt(4) == VERSION, () -> "Unsupported lookup table version: " + header.getInt(4));
+            ClosedRange<Integer> validRange = ClosedRange.create(header.getInt(8), header.getInt(12));
+            int valueWidth = header.getInt(16);
+            checkArgument(valueWidth > 0, () -> "Invalid value width: " + valueWidth);
+            int layout = header.getInt(20);
+            int valueCount = header.getInt(24);
+            checkArgument(valueCount >= 0, () -> "Invalid value count: " + valueCount);
+            checkArgument(layout == DENSE_LAYOUT || layout == SPARSE_LAYOUT,
+                () -> "Unsupported lookup table layout: " + layout);
+            long slots = layout == DENSE_LAYOUT ? slotCount(validRange) : valueCount;
+            long directorySize = layout == DENSE_LAYOUT ? bitmapWords(slots) << 3 : slots * Integer.BYTES;
+            checkArgument(fileSize == HEADER_SIZE + directorySize + slots * valueWidth,
+                () -> "Truncated lookup table file: " + file);
+            SlotDirectory directory = layout == DENSE_LAYOUT
+                ? new BitmapDirectory(validRange.getLowerBound(),
+                    channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, directorySize))
+                : new OrdinalDirectory(valueCount,
+                    map(channel, HEADER_SIZE, valueCount, Integer.BYTES, OrdinalDirectory.ORDINALS_PER_SEGMENT));
+            int slotsPerSegment = Math.max(1, MAX_SEGMENT_SIZE / valueWidth);
+            ByteBuffer[] segments = map(channel, HEADER_SIZE + directorySize, slots, valueWidth, slotsPerSegment);
+            return new MappedLookupTable<>(validRange, valueWidth, directory, segments, slotsPerSegment,
+                keyOrdinalFun, valueSerializer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Maps {@code count} elements of {@code width} bytes starting at {@code position} in segments of
+     * {@code perSegment} elements.
+     */
+    private static ByteBuffer[] map(FileChannel channel, long position, long count, int width, int perSegment)
+        throws IOException {
+        ByteBuffer[] segments = new ByteBuffer[(int) ((count + perSegment - 1) / perSegment)];
+        for (int i = 0; i < segments.length; ++i) {
+            long first = (long) i * perSegment;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position + first * width,
+                Math.min(perSegment, count - first) * width);
+        }
+        return segments;
+    }
+
+    private static final int MAGIC = 0x4C4B5550;
+    private static final int VERSION = 1;
+    private static final int DENSE_LAYOUT = 0;
+    private static final int SPARSE_LAYOUT = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int MAX_SEGMENT_SIZE = 1 << 30;
+    private static final byte[] ZEROS = new byte[1 << 13];
+
+    private final ClosedRange<Integer> validRange;
+    private final int valueWidth;
+    private final SlotDirectory directory;
+    private final ByteBuffer[] segments;
+    private final int slotsPerSegment;
+    private final ToIntFunction<? super K> keyOrdinalFun;
+    private final Serializer<V> valueSerializer;
+
+    private MappedLookupTable(ClosedRange<Integer> validRange, int valueWidth, SlotDirectory directory,
+        ByteBuffer[] segments, int slotsPerSegment, ToIntFunction<? super K> keyOrdinalFun,
+        Serializer<V> valueSerializer) {
+        this.validRange = validRange;
+        this.valueWidth = valueWidth;
+        this.directory = directory;
+        this.segments = segments;
+        this.slotsPerSegment = slotsPerSegment;
+        this.keyOrdinalFun = keyOrdinalFun;
+        this.valueSerializer = valueSerializer;
+    }
+
+    public ClosedRange<Integer> getValidRange() {
+        return validRange;
+    }
+
+    public boolean contains(int ordinal) {
+        return slotOf(ordinal) >= 0;
+    }
+
+    /**
+     * Decodes the value of the {@code ordinal} with the value {@link Serializer}.
+     *
+     * @return the value or {@code null} if the table has no value for the {@code ordinal}
+     * @throws UncheckedIOException if the value cannot be decoded
+     */
+    public V get(int ordinal) {
+        long index = slotOf(ordinal);
+        if (index < 0) {
+            return null;
+        }
+        ByteBuffer slot = slot(index).slice();
+        slot.limit(valueWidth);
+        try {
+            return valueSerializer.read(new DataInputStream(new SlotInputStream(slot)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Optional<V> find(int ordinal) {
+        return Optional.ofNullable(get(ordinal));
+    }
+
+    public Optional<V> lookup(K key) {
+        requireNonNull(key, "key");
+        return find(ordinal(key));
+    }
+
+    public V require(K key) {
+        return lookup(key).orElseThrow(
+            () -> new IllegalArgumentException("No value for key: #" + ordinal(key) + ": " + key)
+        );
+    }
+
+    /**
+     * @throws IllegalArgumentException if the table has no value for the {@code ordinal}
+     * @throws IllegalStateException    if the slots are narrower than an {@code int}
+     */
+    public int getAsInt(int ordinal) {
+        checkState(valueWidth >= Integer.BYTES, () -> "Slots are too narrow for int values: " + valueWidth);
+        return requireSlot(ordinal).getInt();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the table has no value for the {@code ordinal}
+     * @throws IllegalStateException    if the slots are narrower than a {@code long}
+     */
+    public long getAsLong(int ordinal) {
+        checkState(valueWidth >= Long.BYTES, () -> "Slots are too narrow for long values: " + valueWidth);
+        return requireSlot(ordinal).getLong();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the table has no value for the {@code ordinal}
+     * @throws IllegalStateException    if the slots are narrower than a {@code double}
+     */
+    public double getAsDouble(int ordinal) {
+        checkState(valueWidth >= Double.BYTES, () -> "Slots are too narrow for double values: " + valueWidth);
+        return requireSlot(ordinal).getDouble();
+    }
+
+    public <T> MappedLookupTable<T, V> changeKeys(ToIntFunction<? super T> newKeyOrdinalFun) {
+        return new MappedLookupTable<>(validRange, valueWidth, directory, segments, slotsPerSegment,
+            requireNonNull(newKeyOrdinalFun, "newKeyOrdinalFun"), valueSerializer);
+    }
+
+    private int ordinal(K key) {
+        return keyOrdinalFun.applyAsInt(key);
+    }
+
+    private long slotOf(int ordinal) {
+        validRange.checkContains(ordinal, "index");
+        return directory.slotOf(ordinal);
+    }
+
+    private ByteBuffer requireSlot(int ordinal) {
+        long index = slotOf(ordinal);
+        if (index < 0) {
+            throw new IllegalArgumentException("No value for key: #" + ordinal);
+        }
+        return slot(index);
+    }
+
+    /**
+     * A duplicate of the segment positioned at the slot {@code index}, so concurrent reads never share a buffer
+     * position.
+     */
+    private ByteBuffer slot(long index) {
+        ByteBuffer segment = segments[(int) (index / slotsPerSegment)].duplicate();
+        segment.position((int) (index % slotsPerSegment) * valueWidth);
+        return segment;
+    }
+
+    /**
+     * Writes a lookup table file in the format described above. The table is written to a temporary file next to
+     * the {@code file} and moved over it atomically, so tables already mapping the old file keep reading it. The
+     * temporary file is created like any new file, so the table gets the permissions of the umask.
+     *
+     * @param ascendingValues iterates the ordinals and values of the table in ascending order of the ordinals, it is
+     *                        called twice
+     * @throws IllegalArgumentException if a value is wider than {@code valueWidth} bytes
+     * @throws UncheckedIOException     if writing the file fails
+     */
+    static <T> void write(Path file, ClosedRange<Integer> validRange, int valueWidth,
+        Serializer<? super T> valueSerializer, Consumer<IntKeyConsumer<T>> ascendingValues) {
+        requireNonNull(file, "file");
+        requireNonNull(valueSerializer, "valueSerializer");
+        checkArgument(valueWidth > 0, () -> "Invalid valueWidth: " + valueWidth);
+        Path target = file.toAbsolutePath();
+        Path temporaryFile = target.resolveSibling(
+            target.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+        try {
+            OutputStream stream = Files.newOutputStream(temporaryFile, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+            try {
+                writeFile(stream, validRange, valueWidth, valueSerializer, ascendingValues);
+                Files.move(temporaryFile, target, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                stream.close();
+                Files.deleteIfExists(temporaryFile);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <T> void writeFile(OutputStream stream, ClosedRange<Integer> validRange, int valueWidth,
+        Serializer<? super T> valueSerializer, Consumer<IntKeyConsumer<T>> ascendingValues) throws IOException {
+        int lowerBound = validRange.getLowerBound();
+        OrdinalIndex.Builder ordinals = new OrdinalIndex.Builder();
+        ascendingValues.accept((ordinal, value) -> ordinals.add(ordinal));
+        int valueCount = ordinals.size();
+        long slots = slotCount(validRange);
+        boolean dense = slots <= LookupStorage.maxSlots(valueCount);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(lowerBound);
+            out.writeInt(validRange.getUpperBound());
+            out.writeInt(valueWidth);
+            out.writeInt(dense ? DENSE_LAYOUT : SPARSE_LAYOUT);
+            out.writeInt(valueCount);
+            out.writeInt(0);
+            if (dense) {
+                long[] bitmap = new long[(int) bitmapWords(slots)];
+                for (int i = 0; i < valueCount; ++i) {
+                    long index = (long) ordinals.ordinal(i) - lowerBound;
+                    bitmap[(int) (index >>> 6)] |= 1L << index;
+                }
+                for (long word : bitmap) {
+                    out.writeLong(word);
+                }
+            } else {
+                for (int i = 0; i < valueCount; ++i) {
+                    out.writeInt(ordinals.ordinal(i));
+                }
+            }
+            SlotWriter<T> slotWriter = new SlotWriter<>(out, dense, lowerBound, valueWidth, valueSerializer);
+            ascendingValues.accept(slotWriter);
+            slotWriter.writeZeros(((dense ? slots : valueCount) - slotWriter.nextSlot) * valueWidth);
+        }
+    }
+
+    private static long slotCount(ClosedRange<Integer> validRange) {
+        return (long) validRange.getUpperBound() - validRange.getLowerBound() + 1;
+    }
+
+    private static long bitmapWords(long slots) {
+        return (slots + 63) >>> 6;
+    }
+
+    /**
+     * Finds the slots of the ordinals in the valid range.
+     */
+    private interface SlotDirectory {
+
+        /**
+         * @return the slot index of the {@code ordinal} or {@code -1} if it has no value
+         */
+        long slotOf(int ordinal);
+
+    }
+
+    private static final class BitmapDirectory implements SlotDirectory {
+
+        private final int lowerBound;
+        private final ByteBuffer bitmap;
+
+        private BitmapDirectory(int lowerBound, ByteBuffer bitmap) {
+            this.lowerBound = lowerBound;
+            this.bitmap = bitmap;
+        }
+
+        public long slotOf(int ordinal) {
+            long index = (long) ordinal - lowerBound;
+            return (bitmap.getLong((int) (index >>> 6) << 3) & 1L << index) != 0 ? index : -1;
+        }
+    }
+
+    private static final class OrdinalDirectory implements SlotDirectory {
+
+        private static final int ORDINALS_PER_SEGMENT = MAX_SEGMENT_SIZE / Integer.BYTES;
+
+        private final int size;
+        private final ByteBuffer[] segments;
+
+        private OrdinalDirectory(int size, ByteBuffer[] segments) {
+            this.size = size;
+            this.segments = segments;
+        }
+
+        public long slotOf(int ordinal) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int midOrdinal = segments[mid / ORDINALS_PER_SEGMENT]
+                    .getInt(mid % ORDINALS_PER_SEGMENT * Integer.BYTES);
+                if (midOrdinal < ordinal) {
+                    low = mid + 1;
+                } else if (midOrdinal > ordinal) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static final class SlotWriter<T> implements IntKeyConsumer<T> {
+
+        private final DataOutputStream out;
+        private final boolean dense;
+        private final int lowerBound;
+        private final int valueWidth;
+        private final Serializer<? super T> valueSerializer;
+        private final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        private final DataOutputStream encoder = new DataOutputStream(encoded);
+        private long nextSlot;
+
+        /**
+         * @param dense whether the slots are indexed by the ordinals or filled one after the other
+         */
+        private SlotWriter(DataOutputStream out, boolean dense, int lowerBound, int valueWidth,
+            Serializer<? super T> valueSerializer) {
+            this.out = out;
+            this.dense = dense;
+            this.lowerBound = lowerBound;
+            this.valueWidth = valueWidth;
+            this.valueSerializer = valueSerializer;
+        }
+
+        public void accept(int ordinal, T value) {
+            long slot = dense ? (long) ordinal - lowerBound : nextSlot;
+            try {
+                encoded.reset();
+                valueSerializer.write(value, encoder);
+                encoder.flush();
+                checkArgument(encoded.size() <= valueWidth,
+                    () -> "Value wider than " + valueWidth + " bytes: " + value);
+                writeZeros((slot - nextSlot) * valueWidth);
+                encoded.writeTo(out);
+                writeZeros(valueWidth - encoded.size());
+                nextSlot = slot + 1;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeZeros(long count) throws IOException {
+            for (long remaining = count; remaining > 0; remaining -= ZEROS.length) {
+                out.write(ZEROS, 0, (int) Math.min(remaining, ZEROS.length));
+            }
+        }
+    }
+
+    private static final class SlotInputStream extends InputStream {
+
+        private final ByteBuffer slot;
+
+        private SlotInputStream(ByteBuffer slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public int read() {
+            return slot.hasRemaining() ? slot.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!slot.hasRemaining()) {
+                return len == 0 ? 0 : -1;
+            }
+            int count = Math.min(len, slot.remaining());
+            slot.get(b, off, count);
+            return count;
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.doctusoft.dataops;
+
+/**
+ * Decides what happens with the keys a batched lookup could not resolve, see
+ * {@link Entries#lookupKeysBatched(Iterable, int, java.util.function.Function, MissingKeyPolicy)}.
+ */
+public enum MissingKeyPolicy {
+
+    /**
+     * The key is emitted with a {@code null} value, just like {@link Entries#lookupKeys} does.
+     */
+    NULL_VALUE,
+
+    /**
+     * The key is not emitted at all.
+     */
+    SKIP,
+
+    /**
+     * An {@link IllegalArgumentException} is thrown when reaching the key.
+     */
+    FAIL
+
+}
@@ -0,0 +1,96 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+/**
+ * {@link HashAggregation} folding the values of each key into an arbitrary aggregate with a custom combiner.
+ */
+public final class ObjectAggregation<K, V, T> extends HashAggregation<K, V, ObjectAggregation<K, V, T>> {
+
+    /**
+     * @param seedFactory creates the initial aggregate of every key
+     * @param folderFun   function to fold a value into an aggregate
+     * @param combinerFun associative function to {@link #merge} partial aggregates
+     */
+    public static <K, V, T> ObjectAggregation<K, V, T> folding(Supplier<? extends T> seedFactory,
+        BiFunction<? super T, ? super V, ? extends T> folderFun, BinaryOperator<T> combinerFun) {
+        return new ObjectAggregation<>(seedFactory, folderFun, combinerFun);
+    }
+
+    public static <K, V> ObjectAggregation<K, V, V> reducing(BinaryOperator<V> reducerFun) {
+        requireNonNull(reducerFun, "reducerFun");
+        return new ObjectAggregation<>(() -> null, (a, v) -> a == null ? v : reducerFun.apply(a, v), reducerFun);
+    }
+
+    public static <K, V> ObjectAggregation<K, V, V> minBy(Comparator<? super V> comparator) {
+        requireNonNull(comparator, "comparator");
+        return reducing((a, b) -> comparator.compare(b, a) < 0 ? b : a);
+    }
+
+    public static <K, V> ObjectAggregation<K, V, V> maxBy(Comparator<? super V> comparator) {
+        requireNonNull(comparator, "comparator");
+        return reducing((a, b) -> comparator.compare(b, a) > 0 ? b : a);
+    }
+
+    private final Supplier<? extends T> seedFactory;
+    private final BiFunction<? super T, ? super V, ? extends T> folderFun;
+    private final BinaryOperator<T> combinerFun;
+
+    private Object[] values;
+
+    private ObjectAggregation(Supplier<? extends T> seedFactory, BiFunction<? super T, ? super V, ? extends T> folderFun,
+        BinaryOperator<T> combinerFun) {
+        this.seedFactory = requireNonNull(seedFactory, "seedFactory");
+        this.folderFun = requireNonNull(folderFun, "folderFun");
+        this.combinerFun = requireNonNull(combinerFun, "combinerFun");
+        this.values = new Object[index.columnCapacity()];
+    }
+
+    public void accept(K key, V value) {
+        int i = slot(key);
+        if (i < 0) {
+            i = ~i;
+            values[i] = seedFactory.get();
+        }
+        values[i] = folderFun.apply(valueAt(i), value);
+    }
+
+    public ObjectAggregation<K, V, T> merge(ObjectAggregation<K, V, T> other) {
+        requireNonNull(other, "other");
+        for (int j = 0, ln = other.size(); j < ln; ++j) {
+            int i = slot(other.index.keyAt(j));
+            if (i < 0) {
+                values[~i] = other.valueAt(j);
+            } else {
+                values[i] = combinerFun.apply(valueAt(i), other.valueAt(j));
+            }
+        }
+        return this;
+    }
+
+    private int slot(K key) {
+        int i = index.add(key);
+        if (i < 0 && ~i == values.length) {
+            values = Arrays.copyOf(values, index.columnCapacity());
+        }
+        return i;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T valueAt(int i) {
+        return (T) values[i];
+    }
+
+    public Optional<T> find(K key) {
+        int i = index.indexOf(key);
+        return i < 0 ? Optional.empty() : Optional.ofNullable(valueAt(i));
+    }
+
+    public Entries<K, T> toEntries() {
+        return new AggregatedEntries<>(index, this::valueAt);
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+
+import static java.util.Objects.*;
+
+/**
+ * Open-addressing (linear probing) hash index assigning dense, insertion ordered indexes to distinct keys. Only the
+ * {@code int} slot table is rehashed on growth, so value columns kept by the users of the index can be plain
+ * (primitive) arrays addressed by the index of the key and simply grown with {@link Arrays#copyOf}.
+ */
+final class OpenHashIndex<K> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private Object[] keys;
+    private int[] hashes;
+    private int[] slots;
+    private int mask;
+    private int size;
+
+    OpenHashIndex(int expectedSize) {
+        int capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.min(Math.max(1, expectedSize), 1 << 28) - 1) << 2);
+        this.keys = new Object[capacity >>> 1];
+        this.hashes = new int[capacity >>> 1];
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the length the value columns should have to be addressable by all indexes
+     */
+    int columnCapacity() {
+        return keys.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    K keyAt(int index) {
+        return (K) keys[index];
+    }
+
+    /**
+     * @return the index of the key or {@code -1} if not present
+     */
+    int indexOf(Object key) {
+        int hash = hash(requireNonNull(key, "key"));
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int index = slots[slot] - 1;
+            if (index < 0) {
+                return -1;
+            }
+            if (hashes[index] == hash && key.equals(keys[index])) {
+                return index;
+            }
+        }
+    }
+
+    /**
+     * @return the index of the key if it was already present or the bitwise complement ({@code ~index}) of the index
+     * assigned to it if it was added now
+     */
+    int add(K key) {
+        int hash = hash(requireNonNull(key, "key"));
+        int slot = hash & mask;
+        for (; ; slot = (slot + 1) & mask) {
+            int index = slots[slot] - 1;
+            if (index < 0) {
+                break;
+            }
+            if (hashes[index] == hash && key.equals(keys[index])) {
+                return index;
+            }
+        }
+        int index = size++;
+        if (index == keys.length) {
+            keys = Arrays.copyOf(keys, index << 1);
+            hashes = Arrays.copyOf(hashes, index << 1);
+        }
+        keys[index] = key;
+        hashes[index] = hash;
+        slots[slot] = index + 1;
+        if (size << 1 > slots.length) {
+            rehash(slots.length << 1);
+        }
+        return ~index;
+    }
+
+    private void rehash(int capacity) {
+        int[] rehashed = new int[capacity];
+        int newMask = capacity - 1;
+        for (int index = 0; index < size; ++index) {
+            int slot = hashes[index] & newMask;
+            while (rehashed[slot] != 0) {
+                slot = (slot + 1) & newMask;
+            }
+            rehashed[slot] = index + 1;
+        }
+        this.slots = rehashed;
+        this.mask = newMask;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+}
@@ -0,0 +1,200 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+
+import static com.doctusoft.dataops.LookupStorage.*;
+
+/**
+ * Maps the present ordinals of a primitive lookup table to the slots of its value array, in the layout
+ * {@link LookupStorage#layoutOf} chooses for them: the ordinals relative to the smallest one, pages of
+ * {@code PAGE_SIZE} slots allocated for the pages holding values, or the ranks of the sorted ordinals.
+ */
+abstract class OrdinalIndex {
+
+    @FunctionalInterface
+    interface SlotConsumer {
+
+        void accept(int ordinal, int slot);
+
+    }
+
+    /**
+     * Collects the ordinals of a table, the values are kept by the caller at the returned positions.
+     */
+    static final class Builder {
+
+        private int[] ordinals = new int[16];
+        private int size;
+
+        /**
+         * @return the position of the {@code ordinal} among the collected ordinals
+         */
+        int add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size << 1);
+            }
+            ordinals[size] = ordinal;
+            return size++;
+        }
+
+        int ordinal(int position) {
+            return ordinals[position];
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * @throws IllegalArgumentException if an ordinal was collected twice
+         */
+        OrdinalIndex build() {
+            int[] sortedOrdinals = Arrays.copyOf(ordinals, size);
+            RadixSort.sort(sortedOrdinals);
+            for (int i = 1; i < size; ++i) {
+                if (sortedOrdinals[i] == sortedOrdinals[i - 1]) {
+                    throw new IllegalArgumentException("Duplicate value for key: #" + sortedOrdinals[i]);
+                }
+            }
+            switch (layoutOf(sortedOrdinals)) {
+                case DENSE:
+                    return new Dense(sortedOrdinals);
+                case PAGED:
+                    return new Paged(sortedOrdinals);
+                default:
+                    return new Sparse(sortedOrdinals);
+            }
+        }
+    }
+
+    /**
+     * @return the length of the value array
+     */
+    abstract int slotCount();
+
+    /**
+     * @return the slot of the {@code ordinal} or {@code -1} if it is not present
+     */
+    abstract int slotOf(int ordinal);
+
+    /**
+     * Iterates the present ordinals and their slots in ascending order of the ordinals.
+     */
+    abstract void forEach(SlotConsumer action);
+
+    static final class Dense extends OrdinalIndex {
+
+        private final int offset;
+        private final int span;
+        private final BitSet present = new BitSet();
+
+        private Dense(int[] ordinals) {
+            this.offset = ordinals[0];
+            this.span = (int) span(ordinals);
+            for (int ordinal : ordinals) {
+                present.set(ordinal - offset);
+            }
+        }
+
+        int slotCount() {
+            return span;
+        }
+
+        int slotOf(int ordinal) {
+            long index = (long) ordinal - offset;
+            return index >= 0 && index < span && present.get((int) index) ? (int) index : -1;
+        }
+
+        void forEach(SlotConsumer action) {
+            for (int i = present.nextSetBit(0); i >= 0; i = present.nextSetBit(i + 1)) {
+                action.accept(offset + i, i);
+            }
+        }
+    }
+
+    /**
+     * The directory holds the first slot of every page with values or {@code -1}, the pages are laid out one after
+     * the other in the value array.
+     */
+    static final class Paged extends OrdinalIndex {
+
+        private final int offset;
+        private final int[] pageStarts;
+        private final BitSet present = new BitSet();
+        private final int slotCount;
+
+        private Paged(int[] ordinals) {
+            this.offset = ordinals[0];
+            this.pageStarts = new int[directorySize(ordinals)];
+            Arrays.fill(pageStarts, -1);
+            int slots = 0;
+            for (int ordinal : ordinals) {
+                long index = (long) ordinal - offset;
+                int page = (int) (index >>> PAGE_BITS);
+                if (pageStarts[page] < 0) {
+                    pageStarts[page] = slots;
+                    slots += PAGE_SIZE;
+                }
+                present.set(pageStarts[page] + ((int) index & (PAGE_SIZE - 1)));
+            }
+            this.slotCount = slots;
+        }
+
+        int slotCount() {
+            return slotCount;
+        }
+
+        int slotOf(int ordinal) {
+            long index = (long) ordinal - offset;
+            if (index < 0 || index >>> PAGE_BITS >= pageStarts.length) {
+                return -1;
+            }
+            int pageStart = pageStarts[(int) (index >>> PAGE_BITS)];
+            if (pageStart < 0) {
+                return -1;
+            }
+            int slot = pageStart + ((int) index & (PAGE_SIZE - 1));
+            return present.get(slot) ? slot : -1;
+        }
+
+        void forEach(SlotConsumer action) {
+            for (int page = 0; page < pageStarts.length; ++page) {
+                int pageStart = pageStarts[page];
+                if (pageStart >= 0) {
+                    for (int i = present.nextSetBit(pageStart); i >= 0 && i < pageStart + PAGE_SIZE;
+                        i = present.nextSetBit(i + 1)) {
+                        action.accept((int) (offset + ((long) page << PAGE_BITS) + i - pageStart), i);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The slot of an ordinal is its rank among the sorted ordinals, found by binary search.
+     */
+    static final class Sparse extends OrdinalIndex {
+
+        private final int[] ordinals;
+
+        private Sparse(int[] ordinals) {
+            this.ordinals = ordinals;
+        }
+
+        int slotCount() {
+            return ordinals.length;
+        }
+
+        int slotOf(int ordinal) {
+            int slot = Arrays.binarySearch(ordinals, ordinal);
+            return slot >= 0 ? slot : -1;
+        }
+
+        void forEach(SlotConsumer action) {
+            for (int i = 0; i < ordinals.length; ++i) {
+                action.accept(ordinals[i], i);
+            }
+        }
+    }
+
+}
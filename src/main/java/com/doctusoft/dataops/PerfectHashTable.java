@@ -0,0 +1,236 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+import static java.util.Objects.*;
+
+/**
+ * Immutable lookup table for arbitrary keys, built once over a minimal perfect hash: every key is mapped to its own
+ * slot of flat key and value arrays, lookups compare a single stored key and never probe.
+ * <p>
+ * The hash function is built BBHash-style: at every level each remaining key is hashed into a bit array of about twice
+ * as many bits as keys, keys that hit a bit alone keep it and the colliding keys move on to the next level. The slot
+ * of a key is the rank of its bit among all the kept bits, computed from per-word prefix counts. Levels are filled in
+ * parallel for large inputs, the few keys still colliding after the last level - e.g. keys with equal hash codes - are
+ * kept in a small {@link HashMap}.
+ * </p>
+ * <p>
+ * Lookups only read the arrays, so a table can be shared by any number of threads without locking.
+ * </p>
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class PerfectHashTable<K, V> {
+
+    public static <K, V> PerfectHashTable<K, V> fromMap(Map<K, V> map) {
+        return fromEntries(Entries.forMap(map));
+    }
+
+    /**
+     * @throws IllegalArgumentException if a key is present more than once
+     */
+    public static <K, V> PerfectHashTable<K, V> fromEntries(Entries<K, V> entries) {
+        List<Object> keys = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        requireNonNull(entries, "entries").forEach((k, v) -> {
+            keys.add(requireNonNull(k, "key"));
+            values.add(requireNonNull(v, () -> "Null value for key: " + k));
+        });
+        return new Builder(keys.toArray(), values.toArray()).build();
+    }
+
+    private static final int MAX_LEVELS = 24;
+    private static final double BITS_PER_KEY = 2.0;
+    private static final int MIN_PARALLEL_SIZE = 1 << 13;
+
+    private final Level[] levels;
+    private final Map<Object, Integer> fallbackSlots;
+    private final Object[] keys;
+    private final Object[] values;
+
+    private PerfectHashTable(Level[] levels, Map<Object, Integer> fallbackSlots, Object[] keys, Object[] values) {
+        this.levels = levels;
+        this.fallbackSlots = fallbackSlots;
+        this.keys = keys;
+        this.values = values;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * @return the slot of the {@code key} in {@code [0; size())} or {@code -1} if the key is not in the table
+     */
+    public int indexOf(K key) {
+        requireNonNull(key, "key");
+        int slot = slotOf(levels, fallbackSlots, key);
+        return slot >= 0 && keys[slot].equals(key) ? slot : -1;
+    }
+
+    public Optional<V> lookup(K key) {
+        int slot = indexOf(key);
+        return slot < 0 ? Optional.empty() : Optional.of(valueAt(slot));
+    }
+
+    public V require(K key) {
+        return lookup(key).orElseThrow(() -> new IllegalArgumentException("No value for key: " + key));
+    }
+
+    /**
+     * Shares the hash function and the keys of this table, only the values are copied.
+     */
+    public <T> PerfectHashTable<K, T> transformValues(Function<? super V, ? extends T> transformFun) {
+        requireNonNull(transformFun, "transformFun");
+        Object[] transformedValues = new Object[values.length];
+        for (int i = 0; i < values.length; ++i) {
+            transformedValues[i] = transformFun.apply(valueAt(i));
+        }
+        return new PerfectHashTable<>(levels, fallbackSlots, keys, transformedValues);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    /**
+     * The candidate slot of a key, only valid if the key is in the table.
+     */
+    private static int slotOf(Level[] levels, Map<Object, Integer> fallbackSlots, Object key) {
+        int hash = key.hashCode();
+        for (int level = 0; level < levels.length; ++level) {
+            int slot = levels[level].slotOf(hash, level);
+            if (slot >= 0) {
+                return slot;
+            }
+        }
+        Integer slot = fallbackSlots.get(key);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * A level of the hash function: the bits kept by a single key each and the number of kept bits before every word,
+     * offset by the kept bits of the previous levels.
+     */
+    private static final class Level {
+
+        private final long[] bits;
+        private final int[] ranks;
+
+        private Level(long[] bits, int offset) {
+            this.bits = bits;
+            this.ranks = new int[bits.length];
+            int rank = offset;
+            for (int i = 0; i < bits.length; ++i) {
+                ranks[i] = rank;
+                rank += Long.bitCount(bits[i]);
+            }
+        }
+
+        private int slotOf(int hash, int level) {
+            int position = position(hash, level, bits.length << 6);
+            long word = bits[position >>> 6];
+            long bit = 1L << position;
+            return (word & bit) == 0 ? -1 : ranks[position >>> 6] + Long.bitCount(word & (bit - 1));
+        }
+
+        private int rankEnd() {
+            int last = bits.length - 1;
+            return ranks[last] + Long.bitCount(bits[last]);
+        }
+    }
+
+    private static int position(int hash, int level, int size) {
+        long h = hash * 0x9E3779B97F4A7C15L + (level + 1) * 0xC2B2AE3D27D4EB4FL;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) (((h >>> 32) * size) >>> 32);
+    }
+
+    private static final class Builder {
+
+        private final Object[] keys;
+        private final Object[] values;
+        private final int[] hashes;
+
+        private Builder(Object[] keys, Object[] values) {
+            this.keys = keys;
+            this.values = values;
+            this.hashes = new int[keys.length];
+            range(keys.length).forEach(i -> hashes[i] = keys[i].hashCode());
+        }
+
+        private <K, V> PerfectHashTable<K, V> build() {
+            List<Level> levels = new ArrayList<>();
+            int[] remaining = range(keys.length).toArray();
+            int offset = 0;
+            for (int level = 0; level < MAX_LEVELS && remaining.length > 0; ++level) {
+                int size = (int) Math.min(Math.ceil(remaining.length * BITS_PER_KEY / 64) * 64, 1 << 30);
+                AtomicLongArray seen = new AtomicLongArray(size >>> 6);
+                AtomicLongArray collisions = new AtomicLongArray(size >>> 6);
+                int currentLevel = level;
+                int[] positions = new int[remaining.length];
+                int[] current = remaining;
+                range(current.length).forEach(i -> {
+                    positions[i] = position(hashes[current[i]], currentLevel, size);
+                    if (!setBit(seen, positions[i])) {
+                        setBit(collisions, positions[i]);
+                    }
+                });
+                long[] bits = new long[size >>> 6];
+                for (int i = 0; i < bits.length; ++i) {
+                    bits[i] = seen.get(i) & ~collisions.get(i);
+                }
+                Level built = new Level(bits, offset);
+                levels.add(built);
+                offset = built.rankEnd();
+                remaining = range(current.length)
+                    .filter(i -> (bits[positions[i] >>> 6] & 1L << positions[i]) == 0)
+                    .map(i -> current[i])
+                    .toArray();
+            }
+            Map<Object, Integer> fallbackSlots = new HashMap<>();
+            for (int i : remaining) {
+                if (fallbackSlots.put(keys[i], offset + fallbackSlots.size()) != null) {
+                    throw new IllegalArgumentException("Duplicate value for key: " + keys[i]);
+                }
+            }
+            Level[] levelArray = levels.toArray(new Level[0]);
+            Object[] slotKeys = new Object[keys.length];
+            Object[] slotValues = new Object[keys.length];
+            range(keys.length).forEach(i -> {
+                int slot = slotOf(levelArray, fallbackSlots, keys[i]);
+                slotKeys[slot] = keys[i];
+                slotValues[slot] = values[i];
+            });
+            return new PerfectHashTable<>(levelArray, fallbackSlots, slotKeys, slotValues);
+        }
+
+        /**
+         * @return {@code false} if the bit was already set
+         */
+        private static boolean setBit(AtomicLongArray bits, int position) {
+            long bit = 1L << position;
+            long word;
+            do {
+                word = bits.get(position >>> 6);
+                if ((word & bit) != 0) {
+                    return false;
+                }
+            } while (!bits.compareAndSet(position >>> 6, word, word | bit));
+            return true;
+        }
+
+        private static IntStream range(int size) {
+            IntStream range = IntStream.range(0, size);
+            return size < MIN_PARALLEL_SIZE ? range : range.parallel();
+        }
+    }
+
+}
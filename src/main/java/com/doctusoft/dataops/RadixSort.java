@@ -0,0 +1,143 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+/**
+ * Stable, parallel least significant digit radix sort of primitive keys, computing the sorted order of the original
+ * positions as well so parallel value columns can be reordered afterwards.
+ * <p>
+ * Each pass splits the input into chunks: the digit histograms of the chunks and the scattering of their elements
+ * are computed in parallel, the chunk offsets are derived sequentially. Passes where all keys share the same digit
+ * are skipped.
+ * </p>
+ */
+final class RadixSort {
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int MIN_CHUNK_SIZE = 1 << 13;
+
+    private RadixSort() {
+        throw com.doctusoft.java.Failsafe.staticClassInstantiated();
+    }
+
+    /**
+     * Sorts the {@code keys} in place as signed {@code int} values.
+     *
+     * @return the original positions in sorted order
+     */
+    static int[] sort(int[] keys) {
+        long[] unsigned = new long[keys.length];
+        for (int i = 0; i < keys.length; ++i) {
+            unsigned[i] = (keys[i] ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+        }
+        int[] order = sortUnsigned(unsigned, Integer.BYTES);
+        for (int i = 0; i < keys.length; ++i) {
+            keys[i] = (int) unsigned[i] ^ Integer.MIN_VALUE;
+        }
+        return order;
+    }
+
+    /**
+     * Sorts the {@code keys} in place as signed {@code long} values.
+     *
+     * @return the original positions in sorted order
+     */
+    static int[] sort(long[] keys) {
+        for (int i = 0; i < keys.length; ++i) {
+            keys[i] ^= Long.MIN_VALUE;
+        }
+        int[] order = sortUnsigned(keys, Long.BYTES);
+        for (int i = 0; i < keys.length; ++i) {
+            keys[i] ^= Long.MIN_VALUE;
+        }
+        return order;
+    }
+
+    private static int[] sortUnsigned(long[] keys, int keyBytes) {
+        int n = keys.length;
+        int[] order = new int[n];
+        for (int i = 0; i < n; ++i) {
+            order[i] = i;
+        }
+        int chunks = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism() << 2, n / MIN_CHUNK_SIZE));
+        int chunkSize = (n + chunks - 1) / chunks;
+        long[] srcKeys = keys;
+        int[] srcOrder = order;
+        long[] dstKeys = new long[n];
+        int[] dstOrder = new int[n];
+        int[][] offsets = new int[chunks][RADIX];
+        for (int shift = 0; shift < keyBytes * RADIX_BITS; shift += RADIX_BITS) {
+            if (!countDigits(srcKeys, offsets, chunkSize, shift)) {
+                continue;
+            }
+            scatter(srcKeys, srcOrder, dstKeys, dstOrder, offsets, chunkSize, shift);
+            long[] keySwap = srcKeys;
+            srcKeys = dstKeys;
+            dstKeys = keySwap;
+            int[] orderSwap = srcOrder;
+            srcOrder = dstOrder;
+            dstOrder = orderSwap;
+        }
+        if (srcKeys != keys) {
+            System.arraycopy(srcKeys, 0, keys, 0, n);
+            System.arraycopy(srcOrder, 0, order, 0, n);
+        }
+        return order;
+    }
+
+    /**
+     * Fills {@code offsets[chunk][digit]} with the first target position of the elements of the chunk having the
+     * given digit.
+     *
+     * @return {@code false} if the pass can be skipped since all keys have the same digit
+     */
+    private static boolean countDigits(long[] keys, int[][] offsets, int chunkSize, int shift) {
+        int n = keys.length;
+        int chunks = offsets.length;
+        stream(chunks).forEach(c -> {
+            int[] counts = offsets[c];
+            Arrays.fill(counts, 0);
+            for (int i = c * chunkSize, end = Math.min(n, i + chunkSize); i < end; ++i) {
+                ++counts[(int) (keys[i] >>> shift) & (RADIX - 1)];
+            }
+        });
+        int position = 0;
+        for (int digit = 0; digit < RADIX; ++digit) {
+            int total = 0;
+            for (int c = 0; c < chunks; ++c) {
+                total += offsets[c][digit];
+            }
+            if (total == n) {
+                return false;
+            }
+            for (int c = 0; c < chunks; ++c) {
+                int count = offsets[c][digit];
+                offsets[c][digit] = position;
+                position += count;
+            }
+        }
+        return true;
+    }
+
+    private static void scatter(long[] srcKeys, int[] srcOrder, long[] dstKeys, int[] dstOrder, int[][] offsets,
+        int chunkSize, int shift) {
+        int n = srcKeys.length;
+        stream(offsets.length).forEach(c -> {
+            int[] positions = offsets[c];
+            for (int i = c * chunkSize, end = Math.min(n, i + chunkSize); i < end; ++i) {
+                int target = positions[(int) (srcKeys[i] >>> shift) & (RADIX - 1)]++;
+                dstKeys[target] = srcKeys[i];
+                dstOrder[target] = srcOrder[i];
+            }
+        });
+    }
+
+    private static IntStream stream(int chunks) {
+        IntStream stream = IntStream.range(0, chunks);
+        return chunks > 1 ? stream.parallel() : stream;
+    }
+
+}
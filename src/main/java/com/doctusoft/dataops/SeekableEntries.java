@@ -0,0 +1,44 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.function.*;
+
+import static java.util.Comparator.*;
+
+/**
+ * {@link Entries} sorted by strictly monotone keys, able to skip ahead to a given key without visiting the entries
+ * in between. {@link JoinOperator#innerJoin} and {@link JoinOperator#semiJoin} use this to skip the non-matching
+ * runs of the denser side.
+ */
+public interface SeekableEntries<K, V> extends Entries<K, V> {
+
+    /**
+     * Skips the entries with keys less than {@code target}, so the next entry - if any - has a key greater than or
+     * equal to it. Seeking backwards does nothing.
+     *
+     * @return {@code true} if there are remaining entries
+     */
+    boolean seek(K target);
+
+    /**
+     * Random access lists are searched with a galloping (exponential) search from the actual position, so seeking
+     * a distance of {@code d} costs {@code O(log d)} key extractions.
+     */
+    static <K, V> SeekableEntries<K, V> forSortedList(List<V> values, Function<? super V, ? extends K> keyFun,
+        Comparator<? super K> keyOrder) {
+        return new SeekableEntriesForList<>(values, keyFun, keyOrder);
+    }
+
+    static <K extends Comparable<? super K>, V> SeekableEntries<K, V> forSortedList(List<V> values,
+        Function<? super V, ? extends K> keyFun) {
+        return new SeekableEntriesForList<>(values, keyFun, naturalOrder());
+    }
+
+    /**
+     * Seeking uses {@link SortedMap#tailMap}, so it costs {@code O(log n)} for tree maps.
+     */
+    static <K, V> SeekableEntries<K, V> forSortedMap(SortedMap<K, V> map) {
+        return new SeekableEntriesForMap<>(map);
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+final class SeekableEntriesForList<K, V> implements SeekableEntries<K, V> {
+
+    private final List<V> values;
+    private final Function<? super V, ? extends K> keyFun;
+    private final Comparator<? super K> keyOrder;
+    private int i;
+
+    SeekableEntriesForList(List<V> values, Function<? super V, ? extends K> keyFun, Comparator<? super K> keyOrder) {
+        this.values = requireNonNull(values, "values");
+        this.keyFun = requireNonNull(keyFun, "keyFun");
+        this.keyOrder = requireNonNull(keyOrder, "keyOrder");
+    }
+
+    public boolean next(BiConsumer<K, V> action) {
+        if (i < values.size()) {
+            V value = values.get(i++);
+            action.accept(keyFun.apply(value), value);
+            return true;
+        }
+        return false;
+    }
+
+    public boolean seek(K target) {
+        int size = values.size();
+        if (i >= size || compareAt(i, target) >= 0) {
+            return i < size;
+        }
+        int low = i;
+        int step = 1;
+        int high = low + step;
+        while (high < size && compareAt(high, target) < 0) {
+            low = high;
+            step <<= 1;
+            high = low + step;
+        }
+        int from = low + 1;
+        int to = Math.min(high, size);
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (compareAt(mid, target) < 0) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        i = from;
+        return i < size;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT;
+    }
+
+    @Override
+    public Comparator<? super K> getKeyComparator() {
+        return keyOrder;
+    }
+
+    private int compareAt(int index, K target) {
+        return keyOrder.compare(keyFun.apply(values.get(index)), target);
+    }
+
+}
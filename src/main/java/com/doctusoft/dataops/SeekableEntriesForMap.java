@@ -0,0 +1,50 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+import java.util.Map.*;
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+final class SeekableEntriesForMap<K, V> implements SeekableEntries<K, V> {
+
+    private final SortedMap<K, V> map;
+    private final Comparator<? super K> keyOrder;
+    private Iterator<Entry<K, V>> iterator;
+    private K lastKey;
+
+    @SuppressWarnings("unchecked")
+    SeekableEntriesForMap(SortedMap<K, V> map) {
+        this.map = requireNonNull(map, "map");
+        this.keyOrder = map.comparator() == null ? (Comparator<? super K>) Comparator.naturalOrder() : map.comparator();
+        this.iterator = map.entrySet().iterator();
+    }
+
+    public boolean next(BiConsumer<K, V> action) {
+        if (iterator.hasNext()) {
+            Entry<K, V> entry = iterator.next();
+            lastKey = entry.getKey();
+            action.accept(lastKey, entry.getValue());
+            return true;
+        }
+        return false;
+    }
+
+    public boolean seek(K target) {
+        if (iterator.hasNext() && (lastKey == null || keyOrder.compare(lastKey, target) < 0)) {
+            iterator = map.tailMap(target).entrySet().iterator();
+        }
+        return iterator.hasNext();
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT;
+    }
+
+    @Override
+    public Comparator<? super K> getKeyComparator() {
+        return keyOrder;
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.doctusoft.dataops;
+
+import java.io.*;
+
+/**
+ * Writes and reads values of a given type to and from binary streams, used to spill {@link Entries} to disk.
+ */
+public interface Serializer<T> {
+
+    void write(T value, DataOutput out) throws IOException;
+
+    T read(DataInput in) throws IOException;
+
+    static Serializer<Integer> ofInteger() {
+        return BuiltInSerializers.INTEGER;
+    }
+
+    static Serializer<Long> ofLong() {
+        return BuiltInSerializers.LONG;
+    }
+
+    static Serializer<Double> ofDouble() {
+        return BuiltInSerializers.DOUBLE;
+    }
+
+    /**
+     * Strings of any length are supported, serialized as length-prefixed UTF-8 bytes.
+     */
+    static Serializer<String> ofString() {
+        return BuiltInSerializers.STRING;
+    }
+
+}
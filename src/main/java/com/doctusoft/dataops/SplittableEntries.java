@@ -0,0 +1,28 @@
+package com.doctusoft.dataops;
+
+import java.util.*;
+
+/**
+ * {@link Entries} which can be partitioned the same way as a {@link Spliterator}, so the streams created by
+ * {@link Entries#stream(java.util.function.BiFunction)} can be processed in parallel.
+ */
+interface SplittableEntries<K, V> extends Entries<K, V> {
+
+    /**
+     * @return the entries covering a strict prefix of the remaining ones (removed from {@code this}) or {@code null}
+     * if these entries cannot be split
+     * @see Spliterator#trySplit()
+     */
+    SplittableEntries<K, V> trySplit();
+
+    /**
+     * @see Spliterator#estimateSize()
+     */
+    long estimateSize();
+
+    /**
+     * @see Spliterator#characteristics()
+     */
+    int characteristics();
+
+}
@@ -0,0 +1,57 @@
+package com.doctusoft.dataops;
+
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+final class TransformedIntKeyEntries<V1, V2> implements IntKeyEntries<V2>, IntKeyConsumer<V1> {
+
+    static final IntUnaryOperator IDENTITY = k -> k;
+
+    private final IntKeyEntries<V1> entries;
+    private final IntUnaryOperator keyFun;
+    private final Function<? super V1, ? extends V2> valueFun;
+
+    private IntKeyConsumer<V2> action;
+
+    TransformedIntKeyEntries(IntKeyEntries<V1> entries, IntUnaryOperator keyFun,
+        Function<? super V1, ? extends V2> valueFun) {
+        this.entries = requireNonNull(entries, "entries");
+        this.keyFun = requireNonNull(keyFun, "keyFun");
+        this.valueFun = requireNonNull(valueFun, "valueFun");
+    }
+
+    public boolean next(IntKeyConsumer<V2> action) {
+        this.action = requireNonNull(action);
+        return entries.next(this);
+    }
+
+    public void accept(int key, V1 value) {
+        action.accept(keyFun.applyAsInt(key), valueFun.apply(value));
+    }
+
+    @Override
+    public void forEach(IntKeyConsumer<V2> action) {
+        requireNonNull(action);
+        entries.forEach((k, v) -> action.accept(keyFun.applyAsInt(k), valueFun.apply(v)));
+    }
+
+    public IntKeyEntries<V2> transformKeys(IntUnaryOperator fun) {
+        requireNonNull(fun);
+        return new TransformedIntKeyEntries<>(entries, keyFun == IDENTITY ? fun : keyFun.andThen(fun), valueFun);
+    }
+
+    public <T> IntKeyEntries<T> transformValues(Function<? super V2, ? extends T> valueFun) {
+        return new TransformedIntKeyEntries<>(entries, keyFun, transformValueFunction(valueFun));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Function<? super V1, ? extends T> transformValueFunction(Function<? super V2, ? extends T> fun) {
+        requireNonNull(fun);
+        if (valueFun == Function.identity()) {
+            return (Function<? super V1, ? extends T>) fun;
+        }
+        return valueFun.andThen(fun);
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.doctusoft.dataops;
+
+import java.util.function.*;
+
+import static java.util.Objects.*;
+
+final class TransformedLongKeyEntries<V1, V2> implements LongKeyEntries<V2>, LongKeyConsumer<V1> {
+
+    static final LongUnaryOperator IDENTITY = k -> k;
+
+    private final LongKeyEntries<V1> entries;
+    private final LongUnaryOperator keyFun;
+    private final Function<? super V1, ? extends V2> valueFun;
+
+    private LongKeyConsumer<V2> action;
+
+    TransformedLongKeyEntries(LongKeyEntries<V1> entries, LongUnaryOperator keyFun,
+        Function<? super V1, ? extends V2> valueFun) {
+        this.entries = requireNonNull(entries, "entries");
+        this.keyFun = requireNonNull(keyFun, "keyFun");
+        this.valueFun = requireNonNull(valueFun, "valueFun");
+    }
+
+    public boolean next(LongKeyConsumer<V2> action) {
+        this.action = requireNonNull(action);
+        return entries.next(this);
+    }
+
+    public void accept(long key, V1 value) {
+        action.accept(keyFun.applyAsLong(key), valueFun.apply(value));
+    }
+
+    @Override
+    public void forEach(LongKeyConsumer<V2> action) {
+        requireNonNull(action);
+        entries.forEach((k, v) -> action.accept(keyFun.applyAsLong(k), valueFun.apply(v)));
+    }
+
+    public LongKeyEntries<V2> transformKeys(LongUnaryOperator fun) {
+        requireNonNull(fun);
+        return new TransformedLongKeyEntries<>(entries, keyFun == IDENTITY ? fun : keyFun.andThen(fun), valueFun);
+    }
+
+    public <T> LongKeyEntries<T> transformValues(Function<? super V2, ? extends T> valueFun) {
+        return new TransformedLongKeyEntries<>(entries, keyFun, transformValueFunction(valueFun));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Function<? super V1, ? extends T> transformValueFunction(Function<? super V2, ? extends T> fun) {
+        requireNonNull(fun);
+        if (valueFun == Function.identity()) {
+            return (Function<? super V1, ? extends T>) fun;
+        }
+        return valueFun.andThen(fun);
+    }
+
+}
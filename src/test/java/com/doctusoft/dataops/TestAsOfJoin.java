@@ -0,0 +1,68 @@
+package com.doctusoft.dataops;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public final class TestAsOfJoin {
+
+    private static final JoinOperator<Integer> OPERATOR = JoinOperator.natural();
+
+    @Test
+    public void testBackward() {
+        List<String> joined = new ArrayList<>();
+        OPERATOR.asOfJoin(points(1, 3, 5, 10, 12), points(3, 6, 7, 11),
+            (l, r, k) -> joined.add(k + ":" + r));
+        assertEquals(asList("1:null", "3:r3", "5:r3", "10:r7", "12:r11"), joined);
+    }
+
+    @Test
+    public void testForward() {
+        List<String> joined = new ArrayList<>();
+        OPERATOR.asOfJoin(points(1, 3, 5, 10, 12), points(3, 6, 7, 11), AsOfDirection.FORWARD,
+            (l, r) -> true, (l, r, k) -> joined.add(k + ":" + r));
+        assertEquals(asList("1:r3", "3:r3", "5:r6", "10:r11", "12:null"), joined);
+    }
+
+    @Test
+    public void testMaxLag() {
+        List<String> joined = new ArrayList<>();
+        OPERATOR.asOfJoin(points(1, 3, 5, 10, 12), points(3, 6, 7, 11), AsOfDirection.BACKWARD,
+            (l, r) -> l - r <= 2, (l, r, k) -> joined.add(k + ":" + r));
+        assertEquals(asList("1:null", "3:r3", "5:r3", "10:null", "12:r11"), joined);
+    }
+
+    @Test
+    public void testDuplicateLeftKeys() {
+        List<String> joined = new ArrayList<>();
+        OPERATOR.asOfJoin(points(3, 3, 6, 6, 6), points(3, 5), (l, r, k) -> joined.add(k + ":" + r));
+        assertEquals(asList("3:r3", "3:r3", "6:r5", "6:r5", "6:r5"), joined);
+        joined.clear();
+        OPERATOR.asOfJoin(points(3, 3, 4, 4), points(3, 5), AsOfDirection.FORWARD,
+            (l, r) -> true, (l, r, k) -> joined.add(k + ":" + r));
+        assertEquals(asList("3:r3", "3:r3", "4:r5", "4:r5"), joined);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateRightKeys() {
+        OPERATOR.asOfJoin(points(10), points(3, 3), (l, r, k) -> {});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsortedLeft() {
+        OPERATOR.asOfJoin(points(3, 2), points(1), (l, r, k) -> {});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsortedRight() {
+        OPERATOR.asOfJoin(points(10), points(3, 2), (l, r, k) -> {});
+    }
+
+    private static Entries<Integer, String> points(Integer... keys) {
+        return Entries.indexValues(asList(keys), k -> k).transformValues(k -> "r" + k);
+    }
+
+}
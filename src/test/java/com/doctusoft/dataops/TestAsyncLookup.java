@@ -0,0 +1,133 @@
+package com.doctusoft.dataops;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.stream.*;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public final class TestAsyncLookup {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testEmpty() {
+        new EntriesTester<>(Entries.lookupKeysAsync(new ArrayList<Integer>(),
+            k -> CompletableFuture.completedFuture(k), 4)).assertNoMore();
+    }
+
+    @Test
+    public void testInputOrderWithBoundedWindow() {
+        List<Integer> keys = IntStream.range(0, 200).boxed().collect(Collectors.toList());
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Random random = new Random(11);
+        List<Integer> emitted = new ArrayList<>();
+        Entries.lookupKeysAsync(keys, k -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            int delay = random.nextInt(3);
+            return CompletableFuture.supplyAsync(() -> {
+                sleep(delay);
+                inFlight.decrementAndGet();
+                return "#" + k;
+            }, executor);
+        }, 5).forEach((k, outcome) -> {
+            assertEquals("#" + k, outcome.getResult());
+            emitted.add(k);
+        });
+        assertEquals(keys, emitted);
+        assertTrue(maxInFlight.get() <= 5);
+    }
+
+    @Test
+    public void testLookupsOverlap() {
+        CountDownLatch allStarted = new CountDownLatch(3);
+        List<String> results = new ArrayList<>();
+        Entries.lookupKeysAsync(asList(1, 2, 3), k -> CompletableFuture.supplyAsync(() -> {
+            allStarted.countDown();
+            try {
+                assertTrue(allStarted.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return "#" + k;
+        }, executor), 3).forEach((k, outcome) -> results.add(outcome.getResult()));
+        assertEquals(asList("#1", "#2", "#3"), results);
+    }
+
+    @Test
+    public void testFailuresAreOutcomes() {
+        IllegalStateException failure = new IllegalStateException("odd");
+        Entries<Integer, Outcome<String, Throwable>> entries = Entries.lookupKeysAsync(asList(1, 2),
+            k -> CompletableFuture.supplyAsync(() -> {
+                if (k % 2 == 1) {
+                    throw failure;
+                }
+                return "#" + k;
+            }, executor), 2);
+        assertTrue(entries.next((k, outcome) -> assertSame(failure, outcome.getFailure())));
+        assertTrue(entries.next((k, outcome) -> assertEquals("#2", outcome.getResult())));
+        new EntriesTester<>(entries).assertNoMore();
+    }
+
+    @Test
+    public void testThrowingLookupFunction() {
+        IllegalStateException failure = new IllegalStateException("two");
+        List<String> emitted = new ArrayList<>();
+        Entries.lookupKeysAsync(asList(1, 2, 3), k -> {
+            if (k == 2) {
+                throw failure;
+            }
+            return CompletableFuture.completedFuture("#" + k);
+        }, 1).forEach((k, outcome) -> {
+            if (outcome.isFailure()) {
+                assertSame(failure, outcome.getFailure());
+            }
+            emitted.add(k + (outcome.isFailure() ? "!" : outcome.getResult()));
+        });
+        assertEquals(asList("1#1", "2!", "3#3"), emitted);
+    }
+
+    @Test
+    public void testPromises() {
+        List<String> emitted = new ArrayList<>();
+        Entries.<Integer, String, String>lookupKeysPromised(asList(1, 2, 3, 4), k -> {
+            Promise<String, String> promise = new Promise<>();
+            if (k == 3) {
+                promise.reject("missing");
+            } else {
+                executor.execute(() -> {
+                    synchronized (promise) {
+                        promise.resolve("#" + k);
+                    }
+                });
+            }
+            return promise;
+        }, 2).forEach((k, outcome) -> emitted.add(outcome.isFailure() ? outcome.getFailure() : outcome.getResult()));
+        assertEquals(asList("#1", "#2", "missing", "#4"), emitted);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWindow() {
+        Entries.lookupKeysAsync(asList(1), k -> CompletableFuture.completedFuture(k), 0);
+    }
+
+    private static void sleep(int millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
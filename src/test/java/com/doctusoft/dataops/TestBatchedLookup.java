@@ -0,0 +1,74 @@
+package com.doctusoft.dataops;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.function.*;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public final class TestBatchedLookup {
+
+    private static final List<Integer> KEYS = asList(5, 3, 8, 1, 3, 9, 2);
+
+    private final List<List<Integer>> batches = new ArrayList<>();
+
+    @Test
+    public void testEmpty() {
+        new EntriesTester<>(Entries.lookupKeysBatched(new ArrayList<Integer>(), 3, evenNames())).assertNoMore();
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    public void testOriginalOrderWithNullValues() {
+        EntriesTester<Integer, String> tester = new EntriesTester<>(Entries.lookupKeysBatched(KEYS, 3, evenNames()));
+        tester.assertNext(5, null);
+        tester.assertNext(3, null);
+        tester.assertNext(8, "#8");
+        assertEquals(1, batches.size());
+        tester.assertNext(1, null);
+        assertEquals(2, batches.size());
+        tester.assertNext(3, null);
+        tester.assertNext(9, null);
+        tester.assertNext(2, "#2");
+        tester.assertNoMore();
+        assertEquals(asList(asList(5, 3, 8), asList(1, 3, 9), asList(2)), batches);
+    }
+
+    @Test
+    public void testSkipMissingKeys() {
+        EntriesTester<Integer, String> tester = new EntriesTester<>(Entries.lookupKeysBatched(KEYS, 2, evenNames(),
+            MissingKeyPolicy.SKIP));
+        tester.assertNext(8, "#8");
+        tester.assertNext(2, "#2");
+        tester.assertNoMore();
+        assertEquals(4, batches.size());
+    }
+
+    @Test
+    public void testExplicitNullIsNotMissing() {
+        new EntriesTester<>(Entries.lookupKeysBatched(asList(1, 2), 10, keys -> Collections.singletonMap(1, null),
+            MissingKeyPolicy.SKIP)).assertNext(1, null).assertNoMore();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFailOnMissingKey() {
+        Entries.lookupKeysBatched(KEYS, 10, evenNames(), MissingKeyPolicy.FAIL).forEach((k, v) -> {});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBatchSize() {
+        Entries.lookupKeysBatched(KEYS, 0, evenNames());
+    }
+
+    private Function<List<Integer>, Map<Integer, String>> evenNames() {
+        return keys -> {
+            batches.add(new ArrayList<>(keys));
+            Map<Integer, String> names = new HashMap<>();
+            keys.stream().filter(k -> k % 2 == 0).forEach(k -> names.put(k, "#" + k));
+            return names;
+        };
+    }
+
+}
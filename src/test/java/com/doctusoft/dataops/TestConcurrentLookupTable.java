@@ -0,0 +1,101 @@
+package com.doctusoft.dataops;
+
+import com.doctusoft.math.ClosedRange;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.stream.*;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public final class TestConcurrentLookupTable {
+
+    private static final ClosedRange<Integer> VALID_RANGE = ClosedRange.create(-5000, 5000);
+
+    @Test
+    public void testUpdatesAndSnapshots() {
+        ConcurrentLookupTable<Integer, String> table = ConcurrentLookupTable.fromEntries(
+            Entries.indexValues(asList("a", "b"), v -> v.equals("a") ? -5000 : 4000), Integer::intValue, VALID_RANGE);
+        LookupTable<Integer, String> before = table.snapshot();
+        table.put(-5000, "A");
+        table.remove(4000);
+        table.put(17, "c");
+        assertEquals("A", table.require(-5000));
+        assertEquals(Optional.empty(), table.lookup(4000));
+        assertEquals("c", table.get(17));
+        assertEquals("a", before.get(-5000));
+        assertEquals("b", before.get(4000));
+        assertNull(before.get(17));
+        assertEquals(Optional.of("C"), table.snapshot().transformValues(String::toUpperCase).lookup(17));
+    }
+
+    @Test
+    public void testWholeIntRange() {
+        ConcurrentLookupTable<Integer, String> table = ConcurrentLookupTable.create(Integer::intValue,
+            ClosedRange.create(Integer.MIN_VALUE, Integer.MAX_VALUE));
+        table.putAll(Entries.indexValues(asList(Integer.MIN_VALUE, -1, 0, Integer.MAX_VALUE), i -> i)
+            .transformValues(i -> "v" + i));
+        LookupTable<Integer, String> before = table.snapshot();
+        table.put(0, "zero");
+        table.remove(Integer.MAX_VALUE);
+        assertEquals("v" + Integer.MIN_VALUE, table.get(Integer.MIN_VALUE));
+        assertEquals("zero", table.get(0));
+        assertNull(table.get(Integer.MAX_VALUE));
+        assertEquals("v" + Integer.MAX_VALUE, before.get(Integer.MAX_VALUE));
+        assertEquals("v0", before.get(0));
+        assertEquals(Optional.of("V-1"), before.transformValues(String::toUpperCase).lookup(-1));
+        IntLookupTable<Integer> lengths = table.snapshot().transformToInt(String::length);
+        assertEquals(12, lengths.getAsInt(Integer.MIN_VALUE));
+        assertEquals(4, lengths.getAsInt(0));
+        assertFalse(lengths.contains(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testInvalidBatchIsNotApplied() {
+        ConcurrentLookupTable<Integer, String> table = ConcurrentLookupTable.create(Integer::intValue, VALID_RANGE);
+        try {
+            table.putAll(Entries.indexValues(asList("x", "y"), v -> v.equals("x") ? 1 : 5001));
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertNull(table.get(1));
+    }
+
+    @Test
+    public void testReadersSeeWholeBatches() throws Exception {
+        ConcurrentLookupTable<Integer, Integer> table = ConcurrentLookupTable.create(Integer::intValue, VALID_RANGE);
+        List<Integer> ordinals = IntStream.rangeClosed(-5000, 5000).filter(i -> i % 97 == 0).boxed()
+            .collect(Collectors.toList());
+        table.putAll(Entries.indexValues(ordinals, i -> i).transformValues(i -> 0));
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> reader = executor.submit(() -> {
+                int snapshots = 0;
+                while (!done.get()) {
+                    LookupTable<Integer, Integer> snapshot = table.snapshot();
+                    Integer version = snapshot.get(ordinals.get(0));
+                    for (Integer ordinal : ordinals) {
+                        assertEquals(version, snapshot.get(ordinal));
+                    }
+                    ++snapshots;
+                }
+                return snapshots;
+            });
+            for (int version = 1; version <= 200; ++version) {
+                int value = version;
+                table.putAll(Entries.indexValues(ordinals, i -> i).transformValues(i -> value));
+            }
+            done.set(true);
+            assertTrue(reader.get() > 0);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(Integer.valueOf(200), table.get(ordinals.get(ordinals.size() - 1)));
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.doctusoft.dataops;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+/**
+ * Measures the heap allocated by the current thread while draining pipelines to verify that the operators do not
+ * create garbage per element once the JIT has warmed up.
+ */
+public final class TestEntriesAllocation {
+
+    private static final int SIZE = 100_000;
+    private static final int ROUNDS = 20;
+
+    private com.sun.management.ThreadMXBean threadBean;
+
+    private List<String> keys;
+
+    private long checksum;
+
+    private final BiConsumer<String, String> sink = (k, v) -> checksum += k.length() + v.length();
+
+    private final Collection<String> reusedGroup = new AbstractCollection<String>() {
+        public boolean add(String s) {
+            checksum += s.length();
+            return true;
+        }
+
+        public Iterator<String> iterator() {
+            return Collections.emptyIterator();
+        }
+
+        public int size() {
+            return 0;
+        }
+    };
+
+    @Before
+    public void setup() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        keys = IntStream.range(0, SIZE).mapToObj(i -> "key" + i / 1000).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testNextOnFilterTransformChain() {
+        assertSteadyStateAllocationFree(() -> {
+            Entries<String, String> entries = pipeline();
+            while (entries.next(sink)) {
+                // nothing more to do here
+            }
+        });
+    }
+
+    @Test
+    public void testForEachOnFilterTransformChain() {
+        assertSteadyStateAllocationFree(() -> pipeline().forEach(sink));
+    }
+
+    @Test
+    public void testEntryGroups() {
+        assertSteadyStateAllocationFree(() -> {
+            EntryGroups<String, String, Collection<String>> groups = Entries.lookupKeys(keys, Function.identity())
+                .intoGroups(() -> reusedGroup);
+            while (groups.next((k, g) -> checksum += k.length())) {
+                // nothing more to do here
+            }
+        });
+    }
+
+    private Entries<String, String> pipeline() {
+        return Entries.lookupKeys(keys, Function.identity())
+            .filterKeys(k -> k.length() > 2)
+            .transformValues(String::trim)
+            .filterValues(v -> !v.isEmpty())
+            .transformKeys(String::intern);
+    }
+
+    private void assertSteadyStateAllocationFree(Runnable drain) {
+        long allocated = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; ++i) {
+            long before = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            drain.run();
+            allocated = Math.min(allocated, threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - before);
+        }
+        assertTrue("Allocated " + allocated + " bytes for " + SIZE + " elements", allocated < SIZE);
+        assertTrue(checksum > 0);
+    }
+
+}
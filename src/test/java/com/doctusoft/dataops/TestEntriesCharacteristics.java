@@ -0,0 +1,113 @@
+package com.doctusoft.dataops;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.function.*;
+
+import static java.util.Arrays.*;
+import static java.util.Spliterator.*;
+import static org.junit.Assert.*;
+
+public final class TestEntriesCharacteristics {
+
+    private static final JoinOperator<Integer> OPERATOR = JoinOperator.natural();
+
+    @Test
+    public void testSortedMap() {
+        TreeMap<String, Integer> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        map.put("b", 2);
+        map.put("A", 1);
+        Entries<String, Integer> entries = Entries.forMap(map);
+        assertTrue(entries.hasCharacteristics(SORTED | DISTINCT | SIZED));
+        assertSame(String.CASE_INSENSITIVE_ORDER, entries.getKeyComparator());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnsortedMap() {
+        Entries<String, Integer> entries = Entries.forMap(new HashMap<>());
+        assertTrue(entries.hasCharacteristics(DISTINCT));
+        assertFalse(entries.hasCharacteristics(SORTED));
+        entries.getKeyComparator();
+    }
+
+    @Test
+    public void testSortAndIndex() {
+        Entries<Integer, String> entries = Entries.sortAndIndex(new ArrayList<>(asList("ccc", "a", "bb")), String::length);
+        assertTrue(entries.hasCharacteristics(SORTED));
+        assertFalse(entries.hasCharacteristics(DISTINCT));
+        assertEquals(Comparator.naturalOrder(), entries.getKeyComparator());
+        assertFalse(Entries.indexValues(new TreeSet<>(asList("a", "b")), String::length).hasCharacteristics(SORTED));
+        assertTrue(Entries.lookupKeys(new TreeSet<>(asList("a", "b")), String::length)
+            .hasCharacteristics(SORTED | DISTINCT));
+    }
+
+    @Test
+    public void testPipelines() {
+        Entries<Integer, String> sorted = Entries.indexedArrayElements(new String[] { "a", "b", "c" });
+        assertTrue(sorted.hasCharacteristics(SORTED | DISTINCT | SIZED));
+        Entries<Integer, String> filtered = sorted.filterKeys(k -> k > 0).filterValues(v -> true)
+            .transformValues(String::toUpperCase);
+        assertTrue(filtered.hasCharacteristics(SORTED | DISTINCT));
+        assertFalse(filtered.hasCharacteristics(SIZED));
+        assertEquals(Comparator.naturalOrder(), filtered.getKeyComparator());
+        Entries<Integer, String> transformed = sorted.transformKeys(k -> -k);
+        assertFalse(transformed.hasCharacteristics(SORTED));
+        assertFalse(transformed.hasCharacteristics(DISTINCT));
+    }
+
+    @Test
+    public void testKnownSortedSidesAreNotValidated() {
+        int[] compares = new int[1];
+        Comparator<Integer> keyOrder = (a, b) -> {
+            ++compares[0];
+            return Integer.compare(a, b);
+        };
+        JoinOperator<Integer> operator = JoinOperator.from(keyOrder);
+        List<Integer> keys = asList(1, 2, 3, 4, 5);
+        operator.join(Entries.indexValues(keys, k -> k), Entries.forMap(new HashMap<>()), (l, r, k) -> {});
+        assertEquals(keys.size() - 1, compares[0]);
+        compares[0] = 0;
+        operator.join(claimingSorted(Entries.indexValues(keys, k -> k), keyOrder), Entries.forMap(new HashMap<>()),
+            (l, r, k) -> {});
+        assertEquals(0, compares[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownSidesAreValidated() {
+        OPERATOR.join(Entries.indexValues(asList("ccc", "a"), String::length),
+            Entries.indexValues(asList("x"), String::length), (l, r, k) -> {});
+    }
+
+    @Test
+    public void testJoinResultsAndGroups() {
+        Entries<Integer, String> joined = OPERATOR.joined(Entries.indexValues(asList("a", "bb"), String::length),
+            Entries.indexValues(asList("cc"), String::length), (l, r, k) -> l + r);
+        assertTrue(joined.hasCharacteristics(SORTED | DISTINCT));
+        Entries<Integer, ArrayList<String>> groups = EntryGroups.byKeyOrder(
+            Entries.sortAndIndex(new ArrayList<>(asList("a", "b", "cc")), String::length), ArrayList::new,
+            Comparator.<Integer>naturalOrder());
+        assertTrue(groups.hasCharacteristics(SORTED | DISTINCT));
+        assertFalse(new EntryGroups<>(Entries.sortAndIndex(new ArrayList<>(asList("a", "b")), String::length),
+            ArrayList::new).hasCharacteristics(DISTINCT));
+    }
+
+    private static <K, V> Entries<K, V> claimingSorted(Entries<K, V> entries, Comparator<? super K> keyOrder) {
+        return new Entries<K, V>() {
+            public boolean next(BiConsumer<K, V> action) {
+                return entries.next(action);
+            }
+
+            @Override
+            public int characteristics() {
+                return ORDERED | SORTED | DISTINCT;
+            }
+
+            @Override
+            public Comparator<? super K> getKeyComparator() {
+                return keyOrder;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.doctusoft.dataops;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+import static java.util.Spliterator.*;
+import static org.junit.Assert.*;
+
+public final class TestEntriesSpliterator {
+
+    @Test
+    public void testArrayIsSplittable() {
+        Spliterator<String> spliterator = spliterator(Entries.indexedArrayElements(letters(8)));
+        assertEquals(8, spliterator.estimateSize());
+        assertTrue(spliterator.hasCharacteristics(ORDERED | SIZED | SUBSIZED));
+        assertFalse(spliterator.hasCharacteristics(NONNULL));
+
+        Spliterator<String> prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        assertEquals(4, prefix.estimateSize());
+        assertEquals(4, spliterator.estimateSize());
+        assertEquals(Arrays.asList("0=A", "1=B", "2=C", "3=D"), drain(prefix));
+        assertEquals(Arrays.asList("4=E", "5=F", "6=G", "7=H"), drain(spliterator));
+    }
+
+    @Test
+    public void testSingleElementCannotBeSplit() {
+        Spliterator<String> spliterator = spliterator(Entries.indexedArrayElements(letters(1)));
+        assertNull(spliterator.trySplit());
+        assertEquals(Collections.singletonList("0=A"), drain(spliterator));
+    }
+
+    @Test
+    public void testListIsSplittable() {
+        List<Integer> values = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+        Spliterator<String> spliterator = spliterator(Entries.indexValues(values, v -> -v));
+        assertEquals(1000, spliterator.estimateSize());
+        assertTrue(spliterator.hasCharacteristics(ORDERED | SIZED | SUBSIZED));
+        assertNotNull(spliterator.trySplit());
+    }
+
+    @Test
+    public void testSizedMapIsSplittable() {
+        Map<Integer, String> map = new HashMap<>();
+        for (int i = 0; i < 1000; ++i) {
+            map.put(i, String.valueOf(i));
+        }
+        Spliterator<String> spliterator = spliterator(Entries.forMap(map));
+        assertEquals(1000, spliterator.estimateSize());
+        assertTrue(spliterator.hasCharacteristics(SIZED));
+        assertFalse(spliterator.hasCharacteristics(ORDERED));
+        assertNotNull(spliterator.trySplit());
+    }
+
+    @Test
+    public void testIteratorIsNotSplittable() {
+        Spliterator<String> spliterator = spliterator(Entries.indexValueIterator(Arrays.asList(1, 2).iterator(), v -> v));
+        assertNull(spliterator.trySplit());
+        assertEquals(Long.MAX_VALUE, spliterator.estimateSize());
+        assertEquals(ORDERED, spliterator.characteristics());
+    }
+
+    @Test
+    public void testFilteredIsSplittableButNotSized() {
+        Entries<Integer, String> filtered = Entries.indexedArrayElements(letters(8)).filterKeys(k -> k % 2 == 0);
+        Spliterator<String> spliterator = spliterator(filtered);
+        assertTrue(spliterator.hasCharacteristics(ORDERED));
+        assertFalse(spliterator.hasCharacteristics(SIZED));
+        Spliterator<String> prefix = spliterator.trySplit();
+        assertEquals(Arrays.asList("0=A", "2=C"), drain(prefix));
+        assertEquals(Arrays.asList("4=E", "6=G"), drain(spliterator));
+    }
+
+    @Test
+    public void testParallelStreamKeepsOrder() {
+        String[] letters = letters(26);
+        List<String> expected = IntStream.range(0, 26)
+            .mapToObj(i -> i * 10 + "=" + letters[i].toLowerCase())
+            .collect(Collectors.toList());
+        List<String> actual = Entries.indexedArrayElements(letters)
+            .transformKeys(k -> k * 10)
+            .transformValues(String::toLowerCase)
+            .stream((k, v) -> k + "=" + v)
+            .parallel()
+            .collect(Collectors.toList());
+        assertEquals(expected, actual);
+    }
+
+    private static String[] letters(int count) {
+        return IntStream.range(0, count).mapToObj(i -> String.valueOf((char) ('A' + i))).toArray(String[]::new);
+    }
+
+    private static <K, V> Spliterator<String> spliterator(Entries<K, V> entries) {
+        return entries.stream((k, v) -> k + "=" + v).spliterator();
+    }
+
+    private static List<String> drain(Spliterator<String> spliterator) {
+        List<String> list = new ArrayList<>();
+        spliterator.forEachRemaining(list::add);
+        return list;
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.doctusoft.dataops;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.Map.*;
+import java.util.stream.*;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public final class TestExternalSort {
+
+    private Path tempDirectory;
+
+    @Before
+    public void setup() throws IOException {
+        tempDirectory = Files.createTempDirectory("test-external-sort");
+        tempDirectory.toFile().deleteOnExit();
+    }
+
+    @Test
+    public void testEmpty() {
+        new EntriesTester<>(sorter(10).sort(Entries.forMap(new HashMap<>()))).assertNoMore();
+    }
+
+    @Test
+    public void testInMemory() {
+        EntriesTester<Long, String> sorted = new EntriesTester<>(sorter(10).sort(entries(3L, "c", 1L, "a", 2L, "b")));
+        sorted.assertNext(1L, "a");
+        sorted.assertNext(2L, "b");
+        sorted.assertNext(3L, "c");
+        sorted.assertNoMore();
+        assertNoTempFiles();
+    }
+
+    @Test
+    public void testSpilledRunsAreMergedStable() {
+        Random random = new Random(7);
+        List<Entry<Long, String>> input = new ArrayList<>();
+        for (int i = 0; i < 10_000; ++i) {
+            input.add(new AbstractMap.SimpleImmutableEntry<>((long) random.nextInt(500), "v" + i));
+        }
+        List<Entry<Long, String>> expected = new ArrayList<>(input);
+        expected.sort(Entry.comparingByKey());
+
+        ExternalSort.SortedEntries<Long, String> sorted = sorter(97).sort(Entries.forEntries(input));
+        assertTrue(countTempFiles() > 100);
+        assertEquals(expected, sorted.toList());
+        assertNoTempFiles();
+    }
+
+    @Test
+    public void testMemoryBudget() {
+        ExternalSort<Long, String> sorter = sorter(Integer.MAX_VALUE).withMemoryBudget(1000, (k, v) -> 100);
+        ExternalSort.SortedEntries<Long, String> sorted = sorter.sort(Entries.indexValueStream(
+            LongStream.range(0, 95).mapToObj(i -> String.valueOf(94 - i)), Long::valueOf));
+        assertEquals(10, countTempFiles());
+        assertEquals(LongStream.range(0, 95).boxed().collect(Collectors.toList()),
+            sorted.stream((k, v) -> k).collect(Collectors.toList()));
+        assertNoTempFiles();
+    }
+
+    @Test
+    public void testCloseReleasesTempFiles() {
+        ExternalSort.SortedEntries<Long, String> sorted = sorter(2).sort(entries(3L, "c", 1L, "a", 2L, "b", 0L, "x"));
+        new EntriesTester<>(sorted).assertNext(0L, "x");
+        assertEquals(2, countTempFiles());
+        sorted.close();
+        assertNoTempFiles();
+        new EntriesTester<>(sorted).assertNoMore();
+    }
+
+    @Test
+    public void testJoinSortedSources() {
+        ExternalSort<Long, String> sorter = sorter(2);
+        List<String> joined = new ArrayList<>();
+        JoinOperator.<Long>natural().join(
+            sorter.sort(entries(3L, "c", 1L, "a", 2L, "b")),
+            sorter.sort(entries(2L, "B", 4L, "D", 3L, "C")),
+            (l, r, k) -> joined.add(k + ":" + l + "/" + r));
+        assertEquals(asList("1:a/null", "2:b/B", "3:c/C", "4:null/D"), joined);
+        assertNoTempFiles();
+    }
+
+    @Test
+    public void testColumnSortIsStable() {
+        Random random = new Random(3);
+        Integer[] keys = random.ints(1000, 0, 50).boxed().toArray(Integer[]::new);
+        Integer[] values = IntStream.range(0, 1000).boxed().toArray(Integer[]::new);
+        List<Integer> expected = IntStream.range(0, 1000).boxed()
+            .sorted(Comparator.comparing((Integer i) -> keys[i]))
+            .collect(Collectors.toList());
+        ColumnSort.sort(keys, values, 0, keys.length, Comparator.<Integer>naturalOrder());
+        assertEquals(expected, asList(values));
+    }
+
+    private ExternalSort<Long, String> sorter(int maxEntriesInMemory) {
+        return ExternalSort.natural(Serializer.ofLong(), Serializer.ofString())
+            .withMaxEntriesInMemory(maxEntriesInMemory)
+            .withTempDirectory(tempDirectory);
+    }
+
+    private static Entries<Long, String> entries(Object... keyValues) {
+        Map<Long, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put((Long) keyValues[i], (String) keyValues[i + 1]);
+        }
+        return Entries.forMap(map);
+    }
+
+    private long countTempFiles() {
+        try (Stream<Path> files = Files.list(tempDirectory)) {
+            return files.count();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void assertNoTempFiles() {
+        assertEquals(0L, countTempFiles());
+    }
+
+}
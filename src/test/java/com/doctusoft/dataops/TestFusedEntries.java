@@ -0,0 +1,109 @@
+package com.doctusoft.dataops;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.function.*;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public final class TestFusedEntries {
+
+    private static final List<String> LANGUAGES = asList("Go", "Java", "Ruby", "Scala", "Python", "Dart", "Rust");
+
+    private int sourceCalls;
+
+    @Test
+    public void testInterleavedStagesAreFused() {
+        Entries<String, Integer> entries = counting(LANGUAGES)
+            .filterKeys(k -> k > 2)
+            .transformValues(String::toUpperCase)
+            .filterValues(v -> !v.startsWith("R"))
+            .transformKeys(k -> "#" + k)
+            .transformValues(String::length);
+        assertTrue(entries instanceof FusedEntries);
+        EntriesTester<String, Integer> tester = new EntriesTester<>(entries);
+        tester.assertNext("#4", 4);
+        tester.assertNext("#5", 5);
+        tester.assertNext("#6", 6);
+        tester.assertNext("#4", 4);
+        tester.assertNoMore();
+        assertEquals(LANGUAGES.size() + 1, sourceCalls);
+    }
+
+    @Test
+    public void testLimitStopsPullingTheSource() {
+        Entries<Integer, String> entries = counting(LANGUAGES).filterKeys(k -> k == 4).limit(2);
+        EntriesTester<Integer, String> tester = new EntriesTester<>(entries);
+        tester.assertNext(4, "Java");
+        tester.assertNext(4, "Ruby");
+        tester.assertNoMore();
+        assertEquals(3, sourceCalls);
+    }
+
+    @Test
+    public void testLimitBeforeFilter() {
+        List<String> values = new ArrayList<>();
+        counting(LANGUAGES).limit(3).filterKeys(k -> k == 4).forEach((k, v) -> values.add(v));
+        assertEquals(asList("Java", "Ruby"), values);
+        assertEquals(3, sourceCalls);
+    }
+
+    @Test
+    public void testAppendToPartiallyConsumedLimit() {
+        Entries<Integer, String> limited = counting(LANGUAGES).limit(5);
+        for (int i = 0; i < 3; ++i) {
+            assertTrue(limited.next((k, v) -> {}));
+        }
+        List<String> values = new ArrayList<>();
+        limited.transformValues(String::toUpperCase).forEach((k, v) -> values.add(v));
+        assertEquals(asList("SCALA", "PYTHON"), values);
+        Entries<Integer, String> consumed = counting(LANGUAGES).limit(1);
+        assertTrue(consumed.next((k, v) -> {}));
+        new EntriesTester<>(consumed.filterKeys(k -> true)).assertNoMore();
+    }
+
+    @Test
+    public void testZeroLimit() {
+        new EntriesTester<>(counting(LANGUAGES).limit(0)).assertNoMore();
+        assertEquals(0, sourceCalls);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeLimit() {
+        counting(LANGUAGES).limit(-1);
+    }
+
+    @Test
+    public void testPeekSeesIntermediateEntries() {
+        List<String> peeked = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        counting(LANGUAGES)
+            .transformValues(String::toLowerCase)
+            .peek((k, v) -> peeked.add(v))
+            .filterKeys(k -> k == 2)
+            .forEach((k, v) -> values.add(v));
+        assertEquals(7, peeked.size());
+        assertEquals(asList("go"), values);
+    }
+
+    @Test
+    public void testBranchesDoNotShareStages() {
+        Entries<Integer, String> base = Entries.indexValues(LANGUAGES, String::length).filterKeys(k -> k > 3);
+        Entries<Integer, String> upper = base.transformValues(String::toUpperCase);
+        assertNotSame(base, upper);
+        new EntriesTester<>(upper).assertNext(4, "JAVA");
+    }
+
+    private Entries<Integer, String> counting(List<String> values) {
+        Entries<Integer, String> source = Entries.indexValues(values, String::length);
+        return new Entries<Integer, String>() {
+            public boolean next(BiConsumer<Integer, String> action) {
+                ++sourceCalls;
+                return source.next(action);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.doctusoft.dataops;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public final class TestGroupReduction {
+
+    private static final List<String> SORTED = asList("Go", "JS", "Java", "Ruby", "Dart", "Scala", "Python");
+
+    @Test
+    public void testEmpty() {
+        new EntriesTester<>(Entries.indexValues(new ArrayList<String>(), String::length)
+            .reduceGroups(GroupAccumulator.counting())).assertNoMore();
+    }
+
+    @Test
+    public void testCounting() {
+        EntriesTester<Integer, Long> groups = new EntriesTester<>(index(SORTED)
+            .reduceGroups(GroupAccumulator.counting()));
+        groups.assertNext(2, 2L);
+        groups.assertNext(4, 3L);
+        groups.assertNext(5, 1L);
+        groups.assertNext(6, 1L);
+        groups.assertNoMore();
+    }
+
+    @Test
+    public void testUnsortedRunsAreReducedSeparately() {
+        EntriesTester<Integer, Long> groups = new EntriesTester<>(index(asList("Java", "Ruby", "Go", "Dart"))
+            .reduceGroups(GroupAccumulator.summingLong(String::hashCode)));
+        groups.assertNext(4, (long) "Java".hashCode() + "Ruby".hashCode());
+        groups.assertNext(2, (long) "Go".hashCode());
+        groups.assertNext(4, (long) "Dart".hashCode());
+        groups.assertNoMore();
+    }
+
+    @Test
+    public void testReducing() {
+        EntriesTester<Integer, String> groups = new EntriesTester<>(index(SORTED).reduceGroups((a, b) -> a + b));
+        groups.assertNext(2, "GoJS");
+        groups.assertNext(4, "JavaRubyDart");
+        groups.assertNext(5, "Scala");
+        groups.assertNext(6, "Python");
+        groups.assertNoMore();
+    }
+
+    @Test
+    public void testMinAndMax() {
+        EntriesTester<Integer, String> min = new EntriesTester<>(index(SORTED)
+            .reduceGroups(GroupAccumulator.minBy(Comparator.naturalOrder())));
+        min.assertNext(2, "Go");
+        min.assertNext(4, "Dart");
+        EntriesTester<Integer, String> max = new EntriesTester<>(index(SORTED)
+            .reduceGroups(GroupAccumulator.maxBy(Comparator.naturalOrder())));
+        max.assertNext(2, "JS");
+        max.assertNext(4, "Ruby");
+    }
+
+    @Test
+    public void testFolding() {
+        EntriesTester<Integer, String> groups = new EntriesTester<>(index(SORTED)
+            .foldGroups(() -> ">", (acc, v) -> acc + v.charAt(0)));
+        groups.assertNext(2, ">GJ");
+        groups.assertNext(4, ">JRD");
+        groups.assertNext(5, ">S");
+        groups.assertNext(6, ">P");
+        groups.assertNoMore();
+    }
+
+    @Test
+    public void testPrimitiveDouble() {
+        EntriesTester<Integer, Double> groups = new EntriesTester<>(index(SORTED)
+            .reduceGroups(GroupAccumulator.reducingDouble(Double.NEGATIVE_INFINITY, String::length, Math::max)));
+        groups.assertNext(2, 2d);
+        groups.assertNext(4, 4d);
+    }
+
+    @Test
+    public void testCustomKeyEquality() {
+        Entries<String, String> byFirstLetter = Entries.indexValues(asList("jUnit", "Java", "JS", "Scala"),
+            s -> s.substring(0, 1));
+        EntriesTester<String, Long> groups = new EntriesTester<>(new GroupReduction<>(byFirstLetter,
+            GroupAccumulator.counting(), String::equalsIgnoreCase));
+        groups.assertNext("j", 3L);
+        groups.assertNext("S", 1L);
+        groups.assertNoMore();
+    }
+
+    @Test
+    public void testLargeGroup() {
+        Entries<Integer, Integer> entries = Entries.indexValueStream(IntStream.range(0, 1_000_000).boxed(), i -> i / 400_000);
+        EntriesTester<Integer, Long> groups = new EntriesTester<>(entries.reduceGroups(GroupAccumulator.counting()));
+        groups.assertNext(0, 400_000L);
+        groups.assertNext(1, 400_000L);
+        groups.assertNext(2, 200_000L);
+        groups.assertNoMore();
+    }
+
+    private static Entries<Integer, String> index(List<String> values) {
+        return Entries.indexValues(values, String::length);
+    }
+
+}
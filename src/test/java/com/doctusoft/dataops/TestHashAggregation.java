@@ -0,0 +1,117 @@
+package com.doctusoft.dataops;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public final class TestHashAggregation {
+
+    private static final List<String> UNSORTED = asList("Java", "Go", "Ruby", "Scala", "JS", "Dart", "Python", "Rust");
+
+    @Test
+    public void testCounting() {
+        LongAggregation<Integer, String> counts = index(UNSORTED).aggregateByKey(LongAggregation.counting());
+        assertEquals(4, counts.size());
+        assertEquals(4L, counts.getAsLong(4, -1));
+        assertEquals(2L, counts.getAsLong(2, -1));
+        assertEquals(-1L, counts.getAsLong(3, -1));
+        assertFalse(counts.find(3).isPresent());
+        EntriesTester<Integer, Long> tester = new EntriesTester<>(counts.toEntries());
+        tester.assertNext(4, 4L);
+        tester.assertNext(2, 2L);
+        tester.assertNext(5, 1L);
+        tester.assertNext(6, 1L);
+        tester.assertNoMore();
+    }
+
+    @Test
+    public void testMinMaxSum() {
+        LongAggregation<Integer, String> min = index(UNSORTED).aggregateByKey(LongAggregation.min(s -> s.charAt(0)));
+        LongAggregation<Integer, String> max = index(UNSORTED).aggregateByKey(LongAggregation.max(s -> s.charAt(0)));
+        DoubleAggregation<Integer, String> sum = index(UNSORTED).aggregateByKey(DoubleAggregation.summing(s -> 0.5));
+        assertEquals('D', min.getAsLong(4, 0));
+        assertEquals('R', max.getAsLong(4, 0));
+        assertEquals(2d, sum.getAsDouble(4, 0), 0d);
+        assertEquals(1d, sum.getAsDouble(2, 0), 0d);
+    }
+
+    @Test
+    public void testFolding() {
+        ObjectAggregation<Integer, String, String> initials = index(UNSORTED)
+            .aggregateByKey(ObjectAggregation.folding(() -> "", (a, v) -> a + v.charAt(0), String::concat));
+        assertEquals("JRDR", initials.find(4).get());
+        assertEquals("GJ", initials.find(2).get());
+        assertFalse(initials.find(1).isPresent());
+    }
+
+    @Test
+    public void testMerge() {
+        LongAggregation<Integer, String> first = index(UNSORTED.subList(0, 4)).aggregateByKey(LongAggregation.counting());
+        LongAggregation<Integer, String> second = index(UNSORTED.subList(4, 8)).aggregateByKey(LongAggregation.counting());
+        first.merge(second);
+        assertEquals(4L, first.getAsLong(4, 0));
+        assertEquals(2L, first.getAsLong(2, 0));
+        assertEquals(1L, first.getAsLong(6, 0));
+        ObjectAggregation<Integer, String, String> max1 = index(UNSORTED.subList(0, 4))
+            .aggregateByKey(ObjectAggregation.maxBy(Comparator.naturalOrder()));
+        ObjectAggregation<Integer, String, String> max2 = index(UNSORTED.subList(4, 8))
+            .aggregateByKey(ObjectAggregation.maxBy(Comparator.naturalOrder()));
+        assertEquals("Rust", max1.merge(max2).find(4).get());
+    }
+
+    @Test
+    public void testManyCollidingKeys() {
+        LongAggregation<Collider, Integer> counts = LongAggregation.counting();
+        for (int i = 0; i < 10_000; ++i) {
+            counts.accept(new Collider(i % 1000), i);
+        }
+        assertEquals(1000, counts.size());
+        for (int i = 0; i < 1000; ++i) {
+            assertEquals(10L, counts.getAsLong(new Collider(i), 0));
+        }
+    }
+
+    @Test
+    public void testParallelEqualsSequential() {
+        List<Integer> values = new Random(42).ints(500_000, 0, 10_000).boxed().collect(Collectors.toList());
+        LongAggregation<Integer, Integer> sequential = Entries.indexValues(values, v -> v % 7919)
+            .aggregateByKey(LongAggregation.summing(Integer::longValue));
+        LongAggregation<Integer, Integer> parallel = Entries.indexValues(values, v -> v % 7919)
+            .aggregateByKeyInParallel(() -> LongAggregation.summing(Integer::longValue));
+        assertEquals(sequential.size(), parallel.size());
+        sequential.forEach((k, sum) -> assertEquals(sum, parallel.getAsLong(k, -1)));
+        List<Integer> sequentialKeys = new ArrayList<>();
+        List<Integer> parallelKeys = new ArrayList<>();
+        sequential.forEach((k, sum) -> sequentialKeys.add(k));
+        parallel.forEach((k, sum) -> parallelKeys.add(k));
+        assertEquals(sequentialKeys, parallelKeys);
+    }
+
+    private static Entries<Integer, String> index(List<String> values) {
+        return Entries.indexValues(values, String::length);
+    }
+
+    private static final class Collider {
+
+        private final int id;
+
+        private Collider(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Collider && ((Collider) obj).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % 3;
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.doctusoft.dataops;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public final class TestHashJoin {
+
+    private Path tempDirectory;
+
+    @Before
+    public void setup() throws IOException {
+        tempDirectory = Files.createTempDirectory("test-hash-join");
+        tempDirectory.toFile().deleteOnExit();
+    }
+
+    @Test
+    public void testInner() {
+        assertEquals(asList("2:b/B", "3:c/C1", "3:c/C2"), join(HashJoin.inner()));
+    }
+
+    @Test
+    public void testLeftOuter() {
+        assertEquals(asList("1:a/null", "2:b/B", "3:c/C1", "3:c/C2"), join(HashJoin.leftOuter()));
+    }
+
+    @Test
+    public void testFullOuter() {
+        assertEquals(asList("1:a/null", "2:b/B", "3:c/C1", "3:c/C2", "4:null/D"), join(HashJoin.fullOuter()));
+    }
+
+    @Test
+    public void testBuildsFromSmallerSizedSide() {
+        List<String> joined = new ArrayList<>();
+        Map<Integer, String> left = Collections.singletonMap(2, "b");
+        Map<Integer, String> right = map(1, "A", 2, "B", 3, "C");
+        HashJoin.<Integer, String, String>leftOuter().join(Entries.forMap(left), Entries.forMap(right),
+            (l, r, k) -> joined.add(k + ":" + l + "/" + r));
+        assertEquals(asList("2:b/B"), joined);
+        joined.clear();
+        HashJoin.<Integer, String, String>fullOuter().join(Entries.forMap(left), Entries.forMap(right),
+            (l, r, k) -> joined.add(k + ":" + l + "/" + r));
+        assertEquals(asList("1:null/A", "2:b/B", "3:null/C"), joined);
+        assertEquals(asList("1:null/A", "2:b/B", "3:null/C"), joined);
+    }
+
+    @Test
+    public void testSpilledEqualsInMemory() throws IOException {
+        Random random = new Random(9);
+        List<Long> leftKeys = random.longs(20_000, 0, 5_000).boxed().collect(Collectors.toList());
+        List<Long> rightKeys = random.longs(3_000, 2_500, 7_500).boxed().collect(Collectors.toList());
+        List<String> expected = new ArrayList<>();
+        HashJoin.<Long, String, String>fullOuter().join(entries(leftKeys, "l"), entries(rightKeys, "r"),
+            (l, r, k) -> expected.add(k + ":" + l + "/" + r));
+        List<String> spilled = new ArrayList<>();
+        HashJoin.<Long, String, String>fullOuter()
+            .withSpilling(Serializer.ofLong(), Serializer.ofString(), Serializer.ofString(), 500)
+            .withTempDirectory(tempDirectory)
+            .join(entries(leftKeys, "l"), entries(rightKeys, "r"), (l, r, k) -> {
+                spilled.add(k + ":" + l + "/" + r);
+                if (spilled.size() == 1) {
+                    assertTrue(countTempFiles() > 0);
+                }
+            });
+        expected.sort(null);
+        spilled.sort(null);
+        assertEquals(expected, spilled);
+        assertEquals(0L, countTempFiles());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxEntriesInMemory() {
+        HashJoin.<Long, String, String>inner().withSpilling(Serializer.ofLong(), Serializer.ofString(), Serializer.ofString(), 0);
+    }
+
+    private static List<String> join(HashJoin<Integer, String, String> hashJoin) {
+        List<String> joined = new ArrayList<>();
+        hashJoin.join(Entries.forMap(map(1, "a", 2, "b", 3, "c")),
+            Entries.indexValues(asList("B", "C1", "D", "C2"), v -> v.charAt(0) - 'A' + 1),
+            (l, r, k) -> joined.add(k + ":" + l + "/" + r));
+        joined.sort(null);
+        return joined;
+    }
+
+    private static Entries<Long, String> entries(List<Long> keys, String prefix) {
+        return Entries.indexValueStream(IntStream.range(0, keys.size()).mapToObj(i -> prefix + i),
+            v -> keys.get(Integer.parseInt(v.substring(1))));
+    }
+
+    private static Map<Integer, String> map(Object... keyValues) {
+        Map<Integer, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put((Integer) keyValues[i], (String) keyValues[i + 1]);
+        }
+        return map;
+    }
+
+    private long countTempFiles() {
+        try (Stream<Path> files = Files.list(tempDirectory)) {
+            return files.count();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
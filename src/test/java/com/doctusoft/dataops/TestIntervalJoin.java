@@ -0,0 +1,63 @@
+package com.doctusoft.dataops;
+
+import com.doctusoft.math.LeftClosedRange;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public final class TestIntervalJoin {
+
+    @Test
+    public void testContainment() {
+        Map<LeftClosedRange<Integer>, String> intervals = new LinkedHashMap<>();
+        intervals.put(LeftClosedRange.create(0, 10), "a");
+        intervals.put(LeftClosedRange.create(2, 4), "b");
+        intervals.put(LeftClosedRange.create(4, 6), "c");
+        List<String> joined = new ArrayList<>();
+        IntervalJoin.join(Entries.indexValues(asList(-1, 2, 4, 4, 10), i -> i), Entries.forMap(intervals),
+            (l, i, r, k) -> joined.add(k + r));
+        joined.sort(null);
+        assertEquals(asList("2a", "2b", "4a", "4a", "4c", "4c"), joined);
+    }
+
+    @Test
+    public void testMatchesNestedLoop() {
+        Random random = new Random(5);
+        List<Integer> points = random.ints(500, 0, 1000).sorted().boxed().collect(Collectors.toList());
+        List<LeftClosedRange<Integer>> intervals = random.ints(200, 0, 1000)
+            .mapToObj(lower -> LeftClosedRange.create(lower, lower + 1 + random.nextInt(100)))
+            .sorted(Comparator.comparing(LeftClosedRange::getLowerBound))
+            .collect(Collectors.toList());
+        List<String> expected = new ArrayList<>();
+        for (Integer point : points) {
+            for (LeftClosedRange<Integer> interval : intervals) {
+                if (interval.contains(point)) {
+                    expected.add(point + "@" + interval);
+                }
+            }
+        }
+        List<String> joined = new ArrayList<>();
+        Entries<Integer, Integer> pointEntries = Entries.indexValues(points, i -> i);
+        Entries<LeftClosedRange<Integer>, Integer> intervalEntries = Entries.indexValues(
+            IntStream.range(0, intervals.size()).boxed().collect(Collectors.toList()), intervals::get);
+        IntervalJoin.join(pointEntries, intervalEntries, (l, i, r, k) -> {
+            assertSame(intervals.get(r), i);
+            joined.add(k + "@" + i);
+        });
+        expected.sort(null);
+        joined.sort(null);
+        assertEquals(expected, joined);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsortedIntervals() {
+        Entries<LeftClosedRange<Integer>, String> intervalEntries = Entries.indexValues(asList("a", "b"),
+            v -> v.equals("a") ? LeftClosedRange.create(3, 9) : LeftClosedRange.create(1, 9));
+        IntervalJoin.join(Entries.indexValues(asList(5), i -> i), intervalEntries, (l, i, r, k) -> {});
+    }
+
+}
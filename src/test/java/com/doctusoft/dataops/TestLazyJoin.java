@@ -0,0 +1,62 @@
+package com.doctusoft.dataops;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.function.*;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public final class TestLazyJoin {
+
+    private static final JoinOperator<Integer> OPERATOR = JoinOperator.natural();
+
+    private int pulled;
+
+    @Test
+    public void testAdvancesOnDemand() {
+        Entries<Integer, String> joined = OPERATOR.joined(counting(asList("a", "ccc")), counting(asList("BB", "CCC")),
+            (l, r, k) -> l + "/" + r);
+        assertEquals(0, pulled);
+        EntriesTester<Integer, String> tester = new EntriesTester<>(joined);
+        tester.assertNext(1, "a/null");
+        assertEquals(3, pulled);
+        tester.assertNext(2, "null/BB");
+        tester.assertNext(3, "ccc/CCC");
+        tester.assertNoMore();
+    }
+
+    @Test
+    public void testChainedJoins() {
+        Entries<Integer, String> first = OPERATOR.joined(index(asList("a", "bb")), index(asList("BB", "CCC")),
+            (l, r, k) -> l + "/" + r);
+        Entries<Integer, String> second = OPERATOR.joined(first.filterValues(v -> !v.startsWith("null")),
+            index(asList("x", "yyy")), (l, r, k) -> l + "+" + r);
+        EntriesTester<Integer, String> tester = new EntriesTester<>(second);
+        tester.assertNext(1, "a/null+x");
+        tester.assertNext(2, "bb/BB+null");
+        tester.assertNext(3, "null+yyy");
+        tester.assertNoMore();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsortedSide() {
+        OPERATOR.joined(index(asList("bb", "a")), index(asList("a")), (l, r, k) -> l).forEach((k, v) -> {});
+    }
+
+    private static Entries<Integer, String> index(List<String> values) {
+        return Entries.indexValues(values, String::length);
+    }
+
+    private Entries<Integer, String> counting(List<String> values) {
+        Entries<Integer, String> source = index(values);
+        return new Entries<Integer, String>() {
+            public boolean next(BiConsumer<Integer, String> action) {
+                ++pulled;
+                return source.next(action);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.doctusoft.dataops;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public final class TestLongJoinOperator {
+
+    @Test
+    public void testInnerJoin() {
+        List<String> pairs = new ArrayList<>();
+        LongJoinOperator.create().withBufferSize(2).innerJoin(new long[] { -5, 1, 3, 7, 9 }, new long[] { -5, 3, 4, 9 },
+            (leftIndexes, rightIndexes, count) -> {
+                assertTrue(count <= 2);
+                for (int k = 0; k < count; ++k) {
+                    pairs.add(leftIndexes[k] + "-" + rightIndexes[k]);
+                }
+            });
+        assertEquals(asList("0-0", "2-1", "4-3"), pairs);
+    }
+
+    @Test
+    public void testFullOuterJoin() {
+        List<String> pairs = new ArrayList<>();
+        LongJoinOperator.create().fullOuterJoin(new long[] { 1, 3 }, new long[] { 2, 3, 5, 6 },
+            (leftIndexes, rightIndexes, count) -> {
+                for (int k = 0; k < count; ++k) {
+                    pairs.add(leftIndexes[k] + "/" + rightIndexes[k]);
+                }
+            });
+        assertEquals(asList("0/-1", "-1/0", "1/1", "-1/2", "-1/3"), pairs);
+    }
+
+    @Test
+    public void testEqualsJoinOperator() {
+        Random random = new Random(23);
+        long[] left = random.longs(50_000, 0, 200_000).distinct().sorted().toArray();
+        long[] right = random.longs(50_000, 0, 200_000).distinct().sorted().toArray();
+        String[] leftValues = LongStream.of(left).mapToObj(k -> "l" + k).toArray(String[]::new);
+        String[] rightValues = LongStream.of(right).mapToObj(k -> "r" + k).toArray(String[]::new);
+        List<String> expected = new ArrayList<>();
+        JoinOperator.<Long>natural().join(entries(left, leftValues), entries(right, rightValues),
+            (l, r, k) -> expected.add(k + ":" + l + "/" + r));
+        List<String> joined = new ArrayList<>();
+        LongJoinOperator.create().withBufferSize(100).join(left, leftValues, right, rightValues,
+            (l, r, k) -> joined.add(k + ":" + l + "/" + r));
+        assertEquals(expected, joined);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsortedKeys() {
+        LongJoinOperator.create().innerJoin(new long[] { 1, 1 }, new long[] { 1 }, (l, r, count) -> {});
+    }
+
+    private static Entries<Long, String> entries(long[] keys, String[] values) {
+        return LongKeyEntries.forColumns(keys, values).boxed();
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.doctusoft.dataops;
+
+import com.doctusoft.math.ClosedRange;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.Assert.*;
+
+public final class TestLookupStorage {
+
+    @Test
+    public void testDenseLayout() {
+        assertLayout(LookupStorage.Dense.class, denseOrdinals());
+    }
+
+    @Test
+    public void testPagedLayout() {
+        assertLayout(LookupStorage.Paged.class, pagedOrdinals());
+    }
+
+    @Test
+    public void testSparseLayout() {
+        assertLayout(LookupStorage.Sparse.class, sparseOrdinals());
+        assertLayout(LookupStorage.Sparse.class, IntStream.of(Integer.MIN_VALUE, -1, 0, 7, Integer.MAX_VALUE));
+        assertLayout(LookupStorage.Sparse.class, IntStream.empty());
+    }
+
+    @Test
+    public void testOffsetRange() {
+        Map<Integer, String> values = new HashMap<>();
+        values.put(1_000_000, "first");
+        values.put(1_000_500, "last");
+        LookupTable<Integer, String> table = LookupTable.fromMap(values, Integer::intValue,
+            ClosedRange.create(1_000_000, 1_000_500));
+        assertEquals("first", table.get(1_000_000));
+        assertNull(table.get(1_000_001));
+        assertEquals(Optional.of("last!"), table.transformValues(v -> v + "!").lookup(1_000_500));
+        assertEquals(5L, table.transformToLong(String::length).getAsLong(1_000_000));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOrdinalOutOfRange() {
+        LookupTable.fromMap(Collections.singletonMap(5, "x"), Integer::intValue, ClosedRange.create(6, 9));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateOrdinal() {
+        LookupTable.fromValues(Arrays.asList("a", "b"), String::length, String::length, ClosedRange.create(0, 9));
+    }
+
+    /**
+     * Narrow ordinals, also used for the layouts of {@link OrdinalIndex}.
+     */
+    static IntStream denseOrdinals() {
+        return IntStream.rangeClosed(1_000_000, 1_000_500).filter(i -> i % 3 != 0);
+    }
+
+    static IntStream pagedOrdinals() {
+        return IntStream.of(0, 1_000_000, 2_000_000).flatMap(start -> IntStream.range(start, start + 2000));
+    }
+
+    static IntStream sparseOrdinals() {
+        return new Random(11).ints(5000, -1_000_000_000, 1_000_000_000);
+    }
+
+    private static void assertLayout(Class<?> expectedLayout, IntStream ordinalStream) {
+        int[] ordinals = ordinalStream.distinct().sorted().toArray();
+        LookupStorage.Builder builder = new LookupStorage.Builder();
+        for (int i = ordinals.length - 1; i >= 0; --i) {
+            builder.accept(ordinals[i], "v" + ordinals[i]);
+        }
+        LookupStorage storage = builder.build();
+        assertEquals(expectedLayout, storage.getClass());
+        for (int ordinal : ordinals) {
+            assertEquals("v" + ordinal, storage.get(ordinal));
+            if (Arrays.binarySearch(ordinals, ordinal + 1) < 0 && ordinal < Integer.MAX_VALUE) {
+                assertNull(storage.get(ordinal + 1));
+            }
+        }
+        List<Integer> iterated = new ArrayList<>();
+        storage.transform(v -> v + "!").forEach((ordinal, value) -> {
+            assertEquals("v" + ordinal + "!", value);
+            iterated.add(ordinal);
+        });
+        assertEquals(IntStream.of(ordinals).boxed().collect(Collectors.toList()), iterated);
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.doctusoft.dataops;
+
+import com.doctusoft.math.ClosedRange;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public final class TestLookupTableJoin {
+
+    private static final LookupTable<String, String> TABLE = LookupTable.fromValues(asList("one", "three"),
+        String::length, String::length, ClosedRange.create(0, 5));
+
+    @Test
+    public void testLeftOuter() {
+        List<String> joined = new ArrayList<>();
+        TABLE.leftJoin(Entries.indexValues(asList("xxx", "x", "xxxxxxxxxx", "yyy"), v -> v),
+            (l, r, k) -> joined.add(l + "/" + r));
+        assertEquals(asList("xxx/one", "x/null", "xxxxxxxxxx/null", "yyy/one"), joined);
+    }
+
+    @Test
+    public void testChunkedEqualsSingleProbes() {
+        List<String> keys = new Random(29).ints(10_000, 0, 12).mapToObj(n -> String.join("", Collections.nCopies(n, "k")))
+            .collect(Collectors.toList());
+        List<String> expected = new ArrayList<>();
+        TABLE.leftJoin(Entries.indexValues(keys, v -> v), (l, r, k) -> expected.add(k + "/" + r));
+        List<String> chunked = new ArrayList<>();
+        TABLE.leftJoin(Entries.indexValues(keys, v -> v), 64, (l, r, k) -> chunked.add(k + "/" + r));
+        assertEquals(expected, chunked);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidChunkSize() {
+        TABLE.leftJoin(Entries.indexValues(asList("x"), v -> v), 0, (l, r, k) -> {});
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.doctusoft.dataops;
+
+import com.doctusoft.math.ClosedRange;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public final class TestMappedLookupTable {
+
+    private Path file;
+
+    @Before
+    public void setup() throws IOException {
+        file = Files.createTempFile("test-mapped-lookup", ".tbl");
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testObjectValues() {
+        Map<Integer, String> values = new HashMap<>();
+        for (int i = 100; i < 1000; i += 7) {
+            values.put(i, "v" + i);
+        }
+        LookupTable.fromMap(values, Integer::intValue, ClosedRange.create(100, 1100))
+            .writeTo(file, Serializer.ofString(), 8);
+        MappedLookupTable<Integer, String> table = MappedLookupTable.open(file, Integer::intValue,
+            Serializer.ofString());
+        assertEquals(ClosedRange.create(100, 1100), table.getValidRange());
+        for (int i = 100; i <= 1100; ++i) {
+            assertEquals(values.get(i), table.get(i));
+        }
+        assertEquals("v107", table.require(107));
+        assertEquals(Optional.of("v100"), table.changeKeys((String s) -> s.length() * 100).lookup("x"));
+    }
+
+    @Test
+    public void testPrimitiveValues() {
+        IntLookupTable.fromEntries(Entries.indexValues(Arrays.asList("a", "bbb"), v -> v), String::length,
+            v -> -v.length(), ClosedRange.create(-5, 5)).writeTo(file);
+        MappedLookupTable<String, Integer> table = MappedLookupTable.open(file, String::length,
+            Serializer.ofInteger());
+        assertEquals(-3, table.getAsInt(3));
+        assertEquals(Integer.valueOf(-1), table.require("x"));
+        assertFalse(table.contains(-5));
+        assertNull(table.get(2));
+    }
+
+    @Test
+    public void testSparseValues() throws IOException {
+        Map<Integer, String> values = new HashMap<>();
+        for (int i = -1_000_000_000; i <= 1_000_000_000; i += 1_000_000) {
+            values.put(i, "v" + i / 1_000_000);
+        }
+        LookupTable.fromMap(values, Integer::intValue, ClosedRange.create(-1_000_000_000, 1_000_000_000))
+            .transformToLong(v -> Long.parseLong(v.substring(1)))
+            .writeTo(file);
+        assertTrue(Files.size(file) < 64 * values.size());
+        MappedLookupTable<Integer, Long> table = MappedLookupTable.open(file, Integer::intValue, Serializer.ofLong());
+        for (int i = -1_000_000_000; i <= 1_000_000_000; i += 1_000_000) {
+            assertEquals(i / 1_000_000, table.getAsLong(i));
+            assertFalse(i > -1_000_000_000 && table.contains(i - 1));
+        }
+        assertEquals(Optional.of(7L), table.lookup(7_000_000));
+        assertNull(table.get(-1_000_000_000 + 1));
+    }
+
+    @Test
+    public void testRewriteWhileOpen() throws IOException {
+        ClosedRange<Integer> validRange = ClosedRange.create(0, 9999);
+        Map<Integer, String> values = new HashMap<>();
+        for (int i = 0; i < 10_000; i += 3) {
+            values.put(i, "old" + i);
+        }
+        LookupTable.fromMap(values, Integer::intValue, validRange).writeTo(file, Serializer.ofString(), 16);
+        MappedLookupTable<Integer, String> oldTable = MappedLookupTable.open(file, Integer::intValue,
+            Serializer.ofString());
+        LookupTable.fromMap(Collections.singletonMap(1, "new"), Integer::intValue, validRange)
+            .writeTo(file, Serializer.ofString(), 16);
+        for (int i = 0; i < 10_000; ++i) {
+            assertEquals(values.get(i), oldTable.get(i));
+        }
+        MappedLookupTable<Integer, String> newTable = MappedLookupTable.open(file, Integer::intValue,
+            Serializer.ofString());
+        assertEquals("new", newTable.get(1));
+        assertNull(newTable.get(0));
+        try (DirectoryStream<Path> siblings = Files.newDirectoryStream(file.getParent(), file.getFileName() + ".*")) {
+            assertFalse(siblings.iterator().hasNext());
+        }
+    }
+
+    @Test
+    public void testFilePermissions() throws IOException {
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            return;
+        }
+        Files.delete(file);
+        Files.newOutputStream(file).close();
+        Set<PosixFilePermission> createdPermissions = Files.getPosixFilePermissions(file);
+        Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-------"));
+        LookupTable.fromMap(Collections.singletonMap(1, "x"), Integer::intValue, ClosedRange.create(0, 9))
+            .writeTo(file, Serializer.ofString(), 8);
+        assertEquals(createdPermissions, Files.getPosixFilePermissions(file));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooWideValue() {
+        LookupTable.fromMap(Collections.singletonMap(1, "too long"), Integer::intValue, ClosedRange.create(0, 3))
+            .writeTo(file, Serializer.ofString(), 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotATableFile() throws IOException {
+        Files.write(file, new byte[100]);
+        MappedLookupTable.open(file, Integer::intValue, Serializer.ofString());
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.doctusoft.dataops;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public final class TestMultiJoin {
+
+    private static final JoinOperator<Integer> OPERATOR = JoinOperator.natural();
+
+    @Test
+    public void testNoSources() {
+        OPERATOR.joinAll(Collections.emptyList(), (k, row) -> fail());
+    }
+
+    @Test
+    public void testRows() {
+        List<String> joined = new ArrayList<>();
+        OPERATOR.joinAll(asList(
+            Entries.indexValues(asList("a", "ccc"), String::length),
+            Entries.indexValues(asList(2.0, 3.0), Double::intValue),
+            Entries.indexValues(asList("A", "BB", "DDDD"), String::length)),
+            (k, row) -> joined.add(k + ":" + asList(row)));
+        assertEquals(asList("1:[a, null, A]", "2:[null, 2.0, BB]", "3:[ccc, 3.0, null]", "4:[null, null, DDDD]"),
+            joined);
+    }
+
+    @Test
+    public void testEqualsSortedMapMerge() {
+        Random random = new Random(13);
+        List<List<Integer>> sources = IntStream.range(0, 5)
+            .mapToObj(i -> random.ints(2_000, 0, 10_000).distinct().sorted().boxed().collect(Collectors.toList()))
+            .collect(Collectors.toList());
+        TreeMap<Integer, Object[]> expected = new TreeMap<>();
+        for (int i = 0; i < sources.size(); ++i) {
+            for (Integer key : sources.get(i)) {
+                expected.computeIfAbsent(key, k -> new Object[sources.size()])[i] = key;
+            }
+        }
+        Iterator<Map.Entry<Integer, Object[]>> iterator = expected.entrySet().iterator();
+        OPERATOR.joinAll(sources.stream().map(s -> Entries.indexValues(s, v -> v)).collect(Collectors.toList()),
+            (k, row) -> {
+                Map.Entry<Integer, Object[]> next = iterator.next();
+                assertEquals(next.getKey(), k);
+                assertEquals(asList(next.getValue()), asList(row));
+            });
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsortedSource() {
+        OPERATOR.joinAll(asList(Entries.indexValues(asList(1, 2), v -> v), Entries.indexValues(asList(2, 1), v -> v)),
+            (k, row) -> {});
+    }
+
+}
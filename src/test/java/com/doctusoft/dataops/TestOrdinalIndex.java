@@ -0,0 +1,68 @@
+package com.doctusoft.dataops;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.Assert.*;
+
+public final class TestOrdinalIndex {
+
+    @Test
+    public void testDenseLayout() {
+        OrdinalIndex index = assertSlots(OrdinalIndex.Dense.class, TestLookupStorage.denseOrdinals());
+        assertEquals(500, index.slotCount());
+    }
+
+    @Test
+    public void testPagedLayout() {
+        OrdinalIndex index = assertSlots(OrdinalIndex.Paged.class, TestLookupStorage.pagedOrdinals());
+        assertEquals(8 * LookupStorage.PAGE_SIZE, index.slotCount());
+    }
+
+    @Test
+    public void testSparseLayout() {
+        OrdinalIndex index = assertSlots(OrdinalIndex.Sparse.class, TestLookupStorage.sparseOrdinals());
+        assertEquals(5000, index.slotCount());
+        assertEquals(0, assertSlots(OrdinalIndex.Sparse.class, IntStream.empty()).slotCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateOrdinal() {
+        OrdinalIndex.Builder builder = new OrdinalIndex.Builder();
+        builder.add(7);
+        builder.add(3);
+        builder.add(7);
+        builder.build();
+    }
+
+    /**
+     * Checks that the ordinals get distinct slots within the slot count and that the neighbours are absent.
+     */
+    private static OrdinalIndex assertSlots(Class<?> expectedLayout, IntStream ordinalStream) {
+        int[] ordinals = ordinalStream.distinct().toArray();
+        OrdinalIndex.Builder builder = new OrdinalIndex.Builder();
+        Arrays.stream(ordinals).forEach(builder::add);
+        OrdinalIndex index = builder.build();
+        assertEquals(expectedLayout, index.getClass());
+        Arrays.sort(ordinals);
+        BitSet slots = new BitSet();
+        List<Integer> iterated = new ArrayList<>();
+        index.forEach((ordinal, slot) -> {
+            assertEquals(slot, index.slotOf(ordinal));
+            assertFalse(slots.get(slot));
+            assertTrue(slot < index.slotCount());
+            slots.set(slot);
+            iterated.add(ordinal);
+        });
+        assertEquals(IntStream.of(ordinals).boxed().collect(Collectors.toList()), iterated);
+        for (int ordinal : ordinals) {
+            if (Arrays.binarySearch(ordinals, ordinal - 1) < 0) {
+                assertEquals(-1, index.slotOf(ordinal - 1));
+            }
+        }
+        return index;
+    }
+
+}
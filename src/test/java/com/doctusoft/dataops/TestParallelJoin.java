@@ -0,0 +1,81 @@
+package com.doctusoft.dataops;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public final class TestParallelJoin {
+
+    private static final JoinOperator<Integer> OPERATOR = JoinOperator.natural();
+
+    @Test
+    public void testSmallInputs() {
+        List<String> joined = new ArrayList<>();
+        OPERATOR.parallelJoin(asList(1, 3, 4), k -> k, asList("2", "3", "5"), Integer::valueOf,
+            (l, r, k) -> joined.add(k + ":" + l + "/" + r));
+        assertEquals(asList("1:1/null", "2:null/2", "3:3/3", "4:4/null", "5:null/5"), joined);
+    }
+
+    @Test
+    public void testPartitionsEqualSequentialJoin() {
+        List<Integer> left = sortedUniqueKeys(300_000, 1);
+        List<Integer> right = sortedUniqueKeys(100_000, 2);
+        List<String> expected = new ArrayList<>();
+        OPERATOR.join(Entries.indexValues(left, k -> k), Entries.indexValues(right, k -> k),
+            (l, r, k) -> expected.add(k + ":" + l + "/" + r));
+
+        List<Collector> partitions = OPERATOR.parallelJoinPartitions(left, k -> k, right, k -> k, Collector::new);
+        assertTrue(partitions.size() > 1 || ForkJoinPool.getCommonPoolParallelism() <= 1);
+        List<String> joined = partitions.stream().flatMap(c -> c.joined.stream()).collect(Collectors.toList());
+        assertEquals(expected, joined);
+    }
+
+    @Test
+    public void testThreadSafeConsumer() {
+        List<Integer> left = sortedUniqueKeys(200_000, 3);
+        List<Integer> right = sortedUniqueKeys(200_000, 4);
+        ConcurrentLinkedQueue<Integer> keys = new ConcurrentLinkedQueue<>();
+        OPERATOR.parallelJoin(left, k -> k, right, k -> k, (l, r, k) -> {
+            assertTrue(l == null || l.equals(k));
+            assertTrue(r == null || r.equals(k));
+            keys.add(k);
+        });
+        Set<Integer> expected = new TreeSet<>(left);
+        expected.addAll(right);
+        List<Integer> sorted = new ArrayList<>(keys);
+        Collections.sort(sorted);
+        assertEquals(new ArrayList<>(expected), sorted);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsortedInput() {
+        List<Integer> left = new ArrayList<>(sortedUniqueKeys(100_000, 5));
+        Collections.swap(left, 50_000, 50_001);
+        OPERATOR.parallelJoin(left, k -> k, sortedUniqueKeys(100_000, 6), k -> k, (l, r, k) -> {});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateKeys() {
+        OPERATOR.parallelJoin(asList(1, 2, 2), k -> k, asList(1), k -> k, (l, r, k) -> {});
+    }
+
+    private static List<Integer> sortedUniqueKeys(int size, long seed) {
+        return new Random(seed).ints(size, 0, 1_000_000).distinct().sorted().boxed().collect(Collectors.toList());
+    }
+
+    private static final class Collector implements JoinConsumer<Integer, Integer, Integer> {
+
+        private final List<String> joined = new ArrayList<>();
+
+        @Override
+        public void accept(Integer left, Integer right, Integer key) {
+            joined.add(key + ":" + left + "/" + right);
+        }
+    }
+
+}
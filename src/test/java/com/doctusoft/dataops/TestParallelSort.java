@@ -0,0 +1,100 @@
+package com.doctusoft.dataops;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static org.junit.Assert.*;
+
+public final class TestParallelSort {
+
+    private static final int SIZE = 100_000;
+
+    @Test
+    public void testEmpty() {
+        new EntriesTester<>(Entries.parallelSortAndIndex(new ArrayList<String>(), String::length)).assertNoMore();
+        assertFalse(IntKeyEntries.parallelSortAndIndex(new ArrayList<String>(), String::length).next((k, v) -> fail()));
+    }
+
+    @Test
+    public void testEqualsStableSequentialSort() {
+        List<Integer> values = randomValues();
+        List<Integer> expected = new ArrayList<>(values);
+        expected.sort(Comparator.comparing(v -> v % 1000));
+        List<Integer> keys = new ArrayList<>();
+        List<Integer> sorted = new ArrayList<>();
+        Entries.parallelSortAndIndex(values, v -> v % 1000).forEach((k, v) -> {
+            keys.add(k);
+            sorted.add(v);
+        });
+        assertEquals(expected, sorted);
+        assertEquals(expected, values);
+        assertEquals(expected.stream().map(v -> v % 1000).collect(Collectors.toList()), keys);
+    }
+
+    @Test
+    public void testComparator() {
+        List<String> values = new ArrayList<>(Arrays.asList("Go", "Java", "Scala", "JS", "Ruby"));
+        EntriesTester<Integer, String> tester = new EntriesTester<>(
+            Entries.parallelSortAndIndex(values, String::length, Comparator.reverseOrder()));
+        tester.assertNext(5, "Scala");
+        tester.assertNext(4, "Java");
+        tester.assertNext(4, "Ruby");
+        tester.assertNext(2, "Go");
+        tester.assertNext(2, "JS");
+        tester.assertNoMore();
+    }
+
+    @Test
+    public void testIntKeysWithNegatives() {
+        List<Integer> values = randomValues();
+        List<Integer> expected = new ArrayList<>(values);
+        expected.sort(Comparator.comparingInt(TestParallelSort::signedKey));
+        List<Integer> sorted = new ArrayList<>();
+        int[] previous = {Integer.MIN_VALUE};
+        IntKeyEntries.parallelSortAndIndex(values, TestParallelSort::signedKey).forEach((k, v) -> {
+            assertTrue(k >= previous[0]);
+            assertEquals(signedKey(v), k);
+            previous[0] = k;
+            sorted.add(v);
+        });
+        assertEquals(expected, sorted);
+        assertEquals(expected, values);
+    }
+
+    @Test
+    public void testLongKeysWithNegatives() {
+        List<Long> values = new Random(5).longs(SIZE).boxed().collect(Collectors.toList());
+        values.add(Long.MIN_VALUE);
+        values.add(Long.MAX_VALUE);
+        List<Long> expected = new ArrayList<>(values);
+        Collections.sort(expected);
+        List<Long> sorted = new ArrayList<>();
+        LongKeyEntries.parallelSortAndIndex(values, Long::longValue).forEach((k, v) -> {
+            assertEquals(v.longValue(), k);
+            sorted.add(v);
+        });
+        assertEquals(expected, sorted);
+    }
+
+    @Test
+    public void testParallelColumnSortIsStable() {
+        Integer[] keys = new Random(3).ints(SIZE, 0, 50).boxed().toArray(Integer[]::new);
+        Integer[] values = IntStream.range(0, SIZE).boxed().toArray(Integer[]::new);
+        List<Integer> expected = IntStream.range(0, SIZE).boxed()
+            .sorted(Comparator.comparing((Integer i) -> keys[i]))
+            .collect(Collectors.toList());
+        ColumnSort.parallelSort(keys, values, 0, SIZE, Comparator.<Integer>naturalOrder());
+        assertEquals(expected, Arrays.asList(values));
+    }
+
+    private static List<Integer> randomValues() {
+        return new Random(42).ints(SIZE).boxed().collect(Collectors.toList());
+    }
+
+    private static int signedKey(Integer value) {
+        return value >> 12;
+    }
+
+}
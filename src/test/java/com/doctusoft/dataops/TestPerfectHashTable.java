@@ -0,0 +1,55 @@
+package com.doctusoft.dataops;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public final class TestPerfectHashTable {
+
+    @Test
+    public void testEmpty() {
+        PerfectHashTable<String, String> table = PerfectHashTable.fromMap(new HashMap<>());
+        assertEquals(0, table.size());
+        assertEquals(Optional.empty(), table.lookup("x"));
+    }
+
+    @Test
+    public void testMinimalAndComplete() {
+        List<String> codes = IntStream.range(0, 100_000).mapToObj(i -> "code-" + i).collect(Collectors.toList());
+        PerfectHashTable<String, String> table = PerfectHashTable.fromEntries(Entries.indexValues(codes, c -> c));
+        assertEquals(codes.size(), table.size());
+        BitSet slots = new BitSet();
+        for (String code : codes) {
+            int slot = table.indexOf(code);
+            assertFalse(slots.get(slot));
+            slots.set(slot);
+            assertEquals(code, table.require(code));
+        }
+        assertEquals(codes.size(), slots.cardinality());
+        for (int i = 0; i < 1000; ++i) {
+            assertEquals(-1, table.indexOf("other-" + i));
+        }
+    }
+
+    @Test
+    public void testEqualHashCodes() {
+        Map<String, Integer> values = new HashMap<>();
+        for (String key : asList("Aa", "BB", "AaAa", "BBBB", "AaBB", "BBAa", "x", "y")) {
+            values.put(key, key.length());
+        }
+        PerfectHashTable<String, String> table = PerfectHashTable.fromMap(values).transformValues(v -> "#" + v);
+        assertEquals(values.size(), table.size());
+        values.forEach((key, value) -> assertEquals("#" + value, table.require(key)));
+        assertEquals(Optional.empty(), table.lookup("AaAaAa"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateKey() {
+        PerfectHashTable.fromEntries(Entries.indexValues(asList("a", "b", "a"), v -> v));
+    }
+
+}
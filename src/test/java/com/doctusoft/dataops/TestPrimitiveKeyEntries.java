@@ -0,0 +1,93 @@
+package com.doctusoft.dataops;
+
+import com.doctusoft.math.ClosedRange;
+import org.junit.Test;
+
+import java.util.*;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public final class TestPrimitiveKeyEntries {
+
+    private static final String[] LANGUAGES = { "Go", "Java", "Ruby", "Scala", "Python" };
+
+    @Test
+    public void testIndexedArrayElements() {
+        assertEquals(asList("0=Go", "1=Java", "2=Ruby", "3=Scala", "4=Python"),
+            toList(IntKeyEntries.indexedArrayElements(LANGUAGES)));
+    }
+
+    @Test
+    public void testFilterAndTransform() {
+        IntKeyEntries<Integer> entries = IntKeyEntries.indexValues(asList(LANGUAGES), String::length)
+            .filterKeys(k -> k > 2)
+            .transformKeys(k -> k * 10)
+            .filterValues(v -> !v.startsWith("S"))
+            .transformValues(String::length)
+            .transformKeys(k -> k + 1);
+        assertEquals(asList("41=4", "41=4", "61=6"), toList(entries));
+    }
+
+    @Test
+    public void testGroups() {
+        IntKeyEntries<ArrayList<String>> groups = IntKeyEntries.indexValues(asList(LANGUAGES), String::length)
+            .intoGroups();
+        assertEquals(asList("2=[Go]", "4=[Java, Ruby]", "5=[Scala]", "6=[Python]"), toList(groups));
+    }
+
+    @Test
+    public void testEmptyGroups() {
+        assertEquals(Collections.emptyList(), toList(IntKeyEntries.indexedArrayElements(new String[0]).intoGroups()));
+    }
+
+    @Test
+    public void testBoxingRoundTrip() {
+        Entries<Integer, String> boxed = Entries.indexedArrayElements(LANGUAGES)
+            .transformKeysToInt(Integer::intValue)
+            .filterKeys(k -> k % 2 == 0)
+            .boxed();
+        EntriesTester<Integer, String> tester = new EntriesTester<>(boxed);
+        tester.assertNext(0, "Go");
+        tester.assertNext(2, "Ruby");
+        tester.assertNext(4, "Python");
+        tester.assertNoMore();
+    }
+
+    @Test
+    public void testLongColumnsWithJoin() {
+        LongKeyEntries<String> left = LongKeyEntries.forColumns(new long[] { 1L, 5L, 1L << 40 }, new String[] { "a", "b", "c" });
+        LongKeyEntries<String> right = LongKeyEntries.forColumns(new long[] { 5L, 1L << 40 }, new String[] { "B", "C" });
+        List<String> joined = new ArrayList<>();
+        JoinOperator.<Long>natural().join(left.boxed(), right.boxed(), (l, r, k) -> joined.add(k + ":" + l + r));
+        assertEquals(asList("1:anull", "5:bB", "1099511627776:cC"), joined);
+    }
+
+    @Test
+    public void testLongGroups() {
+        LongKeyEntries<String> entries = LongKeyEntries.forColumns(new long[] { 7L, 7L, 8L }, new String[] { "a", "b", "c" });
+        List<String> groups = new ArrayList<>();
+        entries.transformKeys(k -> k << 33).intoGroups().forEach((k, g) -> groups.add(k + "=" + g));
+        assertEquals(asList((7L << 33) + "=[a, b]", (8L << 33) + "=[c]"), groups);
+    }
+
+    @Test
+    public void testLookupTableFromIntKeyEntries() {
+        LookupTable<Integer, String> table = LookupTable.fromIntKeyEntries(
+            IntKeyEntries.indexedArrayElements(LANGUAGES), ClosedRange.create(0, 4));
+        assertEquals("Scala", table.get(3));
+        assertEquals("Python", table.require(4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testColumnLengthMismatch() {
+        IntKeyEntries.forColumns(new int[] { 1 }, new String[] { "a", "b" });
+    }
+
+    private static <V> List<String> toList(IntKeyEntries<V> entries) {
+        List<String> list = new ArrayList<>();
+        entries.forEach((k, v) -> list.add(k + "=" + v));
+        return list;
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.doctusoft.dataops;
+
+import com.doctusoft.math.ClosedRange;
+import org.junit.Test;
+
+import java.util.*;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public final class TestPrimitiveLookupTable {
+
+    private static final ClosedRange<Integer> VALID_RANGE = ClosedRange.create(0, 9);
+
+    @Test
+    public void testIntTable() {
+        IntLookupTable<String> table = IntLookupTable.fromEntries(
+            Entries.indexValues(asList("a", "bbb", "cccc"), v -> v), String::length, String::length, VALID_RANGE);
+        assertEquals(3, table.getAsInt(3));
+        assertEquals(3, table.require("xyz"));
+        assertFalse(table.contains(2));
+        assertEquals(OptionalInt.empty(), table.lookup("xy"));
+        assertEquals(-1, table.getOrDefault(2, -1));
+        assertEquals(OptionalInt.of(40), table.transformValues(v -> v * 10).find(4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingValue() {
+        IntLookupTable.fromEntries(Entries.indexValues(asList("a"), v -> v), String::length, String::length,
+            VALID_RANGE).getAsInt(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateKey() {
+        LongLookupTable.fromEntries(Entries.indexValues(asList("a", "b"), v -> v), String::length, String::hashCode,
+            VALID_RANGE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutOfRange() {
+        DoubleLookupTable.fromEntries(Entries.indexValues(asList("a"), v -> v), String::length, v -> 1.0,
+            VALID_RANGE).contains(10);
+    }
+
+    @Test
+    public void testTransformObjectTable() {
+        Map<String, String> prices = new HashMap<>();
+        prices.put("a", "1.5");
+        prices.put("ccc", "2.25");
+        LookupTable<String, String> table = LookupTable.fromMap(prices, String::length, VALID_RANGE);
+        DoubleLookupTable<String> doubles = table.transformToDouble(Double::parseDouble);
+        assertEquals(2.25, doubles.require("xyz"), 0.0);
+        assertFalse(doubles.contains(2));
+        LongLookupTable<String> longs = table.transformToLong(String::length);
+        assertEquals(OptionalLong.of(4L), longs.lookup("zzz"));
+    }
+
+    @Test
+    public void testSparseTransform() {
+        Map<Integer, String> values = new HashMap<>();
+        values.put(0, "a");
+        values.put(500_000_000, "bb");
+        values.put(1_000_000_000, "ccc");
+        LongLookupTable<Integer> table = LookupTable.fromMap(values, Integer::intValue,
+            ClosedRange.create(0, 1_000_000_000)).transformToLong(String::length);
+        assertEquals(2L, table.getAsLong(500_000_000));
+        assertEquals(OptionalLong.of(30L), table.transformValues(v -> v * 10).lookup(1_000_000_000));
+        assertFalse(table.contains(500_000_001));
+    }
+
+}
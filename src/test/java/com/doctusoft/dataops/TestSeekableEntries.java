@@ -0,0 +1,87 @@
+package com.doctusoft.dataops;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.*;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+public final class TestSeekableEntries {
+
+    private static final JoinOperator<Integer> OPERATOR = JoinOperator.natural();
+
+    private int keyExtractions;
+
+    @Test
+    public void testSeekList() {
+        SeekableEntries<Integer, Integer> entries = SeekableEntries.forSortedList(asList(1, 3, 5, 7, 9), v -> v);
+        assertTrue(entries.seek(4));
+        new EntriesTester<>(entries).assertNext(5, 5);
+        assertTrue(entries.seek(2));
+        new EntriesTester<>(entries).assertNext(7, 7);
+        assertFalse(entries.seek(10));
+        new EntriesTester<>(entries).assertNoMore();
+    }
+
+    @Test
+    public void testSeekMap() {
+        TreeMap<Integer, String> map = new TreeMap<>();
+        asList(1, 3, 5, 7).forEach(k -> map.put(k, "#" + k));
+        SeekableEntries<Integer, String> entries = SeekableEntries.forSortedMap(map);
+        new EntriesTester<>(entries).assertNext(1, "#1");
+        assertTrue(entries.seek(5));
+        new EntriesTester<>(entries).assertNext(5, "#5");
+        assertTrue(entries.seek(3));
+        new EntriesTester<>(entries).assertNext(7, "#7").assertNoMore();
+        assertFalse(entries.seek(1));
+    }
+
+    @Test
+    public void testSparseInnerJoinSkipsDenseSide() {
+        List<Integer> dense = IntStream.range(0, 1_000_000).boxed().collect(Collectors.toList());
+        List<Integer> sparse = IntStream.range(0, 1_000).map(i -> i * 997 + 3).boxed().collect(Collectors.toList());
+        List<Integer> joined = new ArrayList<>();
+        OPERATOR.innerJoin(Entries.indexValues(sparse, v -> v), SeekableEntries.forSortedList(dense, this::countedKey),
+            (l, r, k) -> {
+                assertEquals(l, r);
+                joined.add(k);
+            });
+        assertEquals(sparse, joined);
+        assertTrue(keyExtractions < 50_000);
+    }
+
+    @Test
+    public void testInnerJoinEqualsFilteredFullJoin() {
+        Random random = new Random(17);
+        List<Integer> left = random.ints(5_000, 0, 20_000).distinct().sorted().boxed().collect(Collectors.toList());
+        List<Integer> right = random.ints(5_000, 0, 20_000).distinct().sorted().boxed().collect(Collectors.toList());
+        List<Integer> expected = new ArrayList<>();
+        OPERATOR.join(Entries.indexValues(left, v -> v), Entries.indexValues(right, v -> v), (l, r, k) -> {
+            if (l != null && r != null) {
+                expected.add(k);
+            }
+        });
+        List<Integer> joined = new ArrayList<>();
+        OPERATOR.innerJoin(SeekableEntries.forSortedList(left, v -> v), SeekableEntries.forSortedList(right, v -> v),
+            (l, r, k) -> joined.add(k));
+        assertEquals(expected, joined);
+        List<Integer> semiJoined = new ArrayList<>();
+        OPERATOR.semiJoin(Entries.indexValues(left, v -> v), SeekableEntries.forSortedList(right, v -> v))
+            .forEach((k, v) -> semiJoined.add(v));
+        assertEquals(expected, semiJoined);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsortedSide() {
+        OPERATOR.innerJoin(Entries.indexValues(asList(1, 5, 2), v -> v), SeekableEntries.forSortedList(asList(1, 2, 5, 6),
+            v -> v), (l, r, k) -> {});
+    }
+
+    private Integer countedKey(Integer value) {
+        ++keyExtractions;
+        return value;
+    }
+
+}